@@ -2,6 +2,8 @@ package org.example.khoahoconl.configuration;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.example.khoahoconl.security.CustomUserDetailsService;
 import org.example.khoahoconl.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
@@ -72,13 +74,22 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                // Async dispatches resume a request that was already authorized, e.g. streamed exports
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
                 .requestMatchers("/api/course/all").permitAll()
+                .requestMatchers("/api/course/catalog").permitAll()
+                .requestMatchers("/api/course/search").permitAll()
+                .requestMatchers("/api/course/facets").permitAll()
+                .requestMatchers("/api/course/trending").permitAll()
                 .requestMatchers("/api/course/{id}").permitAll()
                 .requestMatchers("/api/webhook/**").permitAll()
+                // Loaded by <img>, which sends no bearer token; each URL carries an HMAC instead
+                .requestMatchers("/api/payment/qr/**").permitAll()
                 .requestMatchers("/api/debug/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/course/**").hasAnyRole("ADMIN", "USER")
+                .requestMatchers("/api/learning-paths/**").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/api/v1/users/**").hasAnyRole("ADMIN", "USER")
                 .anyRequest().authenticated()
                 )
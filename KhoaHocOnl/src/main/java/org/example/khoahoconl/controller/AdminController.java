@@ -5,14 +5,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.example.khoahoconl.dto.request.CourseCreationRequest;
 import org.example.khoahoconl.dto.request.CourseUpdateRequest;
+import org.example.khoahoconl.dto.request.EnrollmentQueryRequest;
 import org.example.khoahoconl.dto.response.ApiResponse;
+import org.example.khoahoconl.dto.response.BulkStatusUpdateResponse;
+import org.example.khoahoconl.dto.response.CourseImportJobResponse;
 import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.CursorPageResponse;
+import org.example.khoahoconl.dto.response.EnrollmentResponse;
 import org.example.khoahoconl.dto.response.UserResponse;
-import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.exception.AppException;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -23,13 +31,18 @@ import java.util.List;
 public class AdminController {
 
     org.example.khoahoconl.service.AdminManagementFacade adminFacade;
-    org.example.khoahoconl.service.CourseImportService courseImportService;
+    org.example.khoahoconl.service.CourseImportJobService courseImportJobService;
 
     @GetMapping("/users")
     public ResponseEntity<List<UserResponse>> getUsers() {
         return ResponseEntity.ok(adminFacade.getAllUsers());
     }
 
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return ResponseEntity.ok(adminFacade::exportUsers);
+    }
+
     @DeleteMapping("/users/{id}")
     public ResponseEntity<ApiResponse<String>> deleteUser(@PathVariable Long id) {
         adminFacade.deleteUser(id);
@@ -82,49 +95,70 @@ public class AdminController {
     }
 
     @PostMapping("/enrollments/batch-approve")
-    public ResponseEntity<ApiResponse<String>> batchApproveEnrollments(@RequestBody List<Long> enrollmentIds) {
-        adminFacade.batchApproveEnrollments(enrollmentIds);
+    public ResponseEntity<ApiResponse<BulkStatusUpdateResponse>> batchApproveEnrollments(@RequestBody List<Long> enrollmentIds) {
+        BulkStatusUpdateResponse result = adminFacade.batchApproveEnrollments(enrollmentIds);
 
-        ApiResponse<String> apiResponse = new ApiResponse<>();
+        ApiResponse<BulkStatusUpdateResponse> apiResponse = new ApiResponse<>();
         apiResponse.setCode(200);
-        apiResponse.setMessage("Batch approval completed for " + enrollmentIds.size() + " enrollments");
+        apiResponse.setMessage("Batch approval completed: " + result.getUpdated().size() + " updated, "
+                + result.getSkipped().size() + " skipped, " + result.getNotFound().size() + " not found");
+        apiResponse.setResult(result);
         return ResponseEntity.ok(apiResponse);
     }
 
     @PostMapping("/enrollments/batch-reject")
-    public ResponseEntity<ApiResponse<String>> batchRejectEnrollments(@RequestBody List<Long> enrollmentIds) {
-        adminFacade.batchRejectEnrollments(enrollmentIds);
+    public ResponseEntity<ApiResponse<BulkStatusUpdateResponse>> batchRejectEnrollments(@RequestBody List<Long> enrollmentIds) {
+        BulkStatusUpdateResponse result = adminFacade.batchRejectEnrollments(enrollmentIds);
 
-        ApiResponse<String> apiResponse = new ApiResponse<>();
+        ApiResponse<BulkStatusUpdateResponse> apiResponse = new ApiResponse<>();
         apiResponse.setCode(200);
-        apiResponse.setMessage("Batch rejection completed for " + enrollmentIds.size() + " enrollments");
+        apiResponse.setMessage("Batch rejection completed: " + result.getUpdated().size() + " updated, "
+                + result.getSkipped().size() + " skipped, " + result.getNotFound().size() + " not found");
+        apiResponse.setResult(result);
         return ResponseEntity.ok(apiResponse);
     }
 
     @GetMapping("/enrollments")
-    public ResponseEntity<List<CourseEnrollment>> getAllEnrollments() {
-        return ResponseEntity.ok(adminFacade.getAllEnrollments());
+    public ResponseEntity<CursorPageResponse<EnrollmentResponse>> getEnrollments(
+            @ModelAttribute EnrollmentQueryRequest request) {
+        return ResponseEntity.ok(adminFacade.getEnrollments(request));
+    }
+
+    @GetMapping(value = "/enrollments/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEnrollments() {
+        return ResponseEntity.ok(adminFacade::exportEnrollments);
     }
 
-    // Import courses from JSON
-    @PostMapping("/courses/import")
-    public ResponseEntity<ApiResponse<String>> importCourses(
-            @RequestBody List<org.example.khoahoconl.dto.request.CourseImportRequest> requests) {
+    // Queue an import of a JSON array of courses; progress is polled on the returned job
+    @PostMapping(value = "/courses/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<CourseImportJobResponse>> importCourses(InputStream payload) {
         try {
-            courseImportService.importCourses(requests);
-            courseImportService.importPrerequisites(requests);
+            CourseImportJobResponse job = courseImportJobService.submit(payload);
 
-            ApiResponse<String> apiResponse = new ApiResponse<>();
-            apiResponse.setCode(200);
-            apiResponse.setMessage("Successfully imported " + requests.size() + " courses");
-            apiResponse.setResult("Import completed");
+            ApiResponse<CourseImportJobResponse> apiResponse = new ApiResponse<>();
+            apiResponse.setCode(202);
+            apiResponse.setMessage("Import of " + job.getCoursesTotal() + " courses queued");
+            apiResponse.setResult(job);
 
-            return ResponseEntity.ok(apiResponse);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(apiResponse);
+        } catch (AppException e) {
+            throw e;
         } catch (Exception e) {
-            ApiResponse<String> apiResponse = new ApiResponse<>();
+            ApiResponse<CourseImportJobResponse> apiResponse = new ApiResponse<>();
             apiResponse.setCode(500);
             apiResponse.setMessage("Failed to import courses: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
         }
     }
+
+    @GetMapping("/courses/import/{jobId}")
+    public ResponseEntity<ApiResponse<CourseImportJobResponse>> getImportJob(@PathVariable String jobId) {
+        CourseImportJobResponse job = courseImportJobService.getJob(jobId);
+
+        ApiResponse<CourseImportJobResponse> apiResponse = new ApiResponse<>();
+        apiResponse.setCode(200);
+        apiResponse.setMessage("Import job " + job.getStatus().toLowerCase());
+        apiResponse.setResult(job);
+        return ResponseEntity.ok(apiResponse);
+    }
 }
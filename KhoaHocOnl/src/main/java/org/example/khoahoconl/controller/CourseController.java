@@ -3,16 +3,29 @@ package org.example.khoahoconl.controller;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.dto.request.CourseCatalogRequest;
 import org.example.khoahoconl.dto.request.CourseUpdateRequest;
 import org.example.khoahoconl.dto.response.ApiResponse;
+import org.example.khoahoconl.dto.response.CatalogFacetsResponse;
 import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.CourseSearchResponse;
+import org.example.khoahoconl.dto.response.CursorPageResponse;
 import org.example.khoahoconl.dto.response.PaymentResponse;
-import org.example.khoahoconl.service.CourseService;
-import org.example.khoahoconl.service.UserService;
+import org.example.khoahoconl.dto.response.TrendingCourseResponse;
+import org.example.khoahoconl.enums.TrendingWindow;
+import org.example.khoahoconl.service.CourseDetailSnapshotStore;
+import org.example.khoahoconl.security.JwtPrincipal;
+import org.example.khoahoconl.security.JwtTokenProvider;
+import org.example.khoahoconl.service.EnrollmentStatusNotifier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -22,22 +35,93 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class CourseController {
 
-    final UserService userService;
     final org.example.khoahoconl.service.CourseManagementFacade courseManagementFacade;
+    final EnrollmentStatusNotifier enrollmentStatusNotifier;
+    final JwtTokenProvider jwtTokenProvider;
 
     @GetMapping("all")
-    public ResponseEntity<List<CourseResponse>> getAllCourse() {
-        return ResponseEntity.ok(courseManagementFacade.getAllCourses());
+    public ResponseEntity<List<CourseResponse>> getAllCourse(WebRequest webRequest) {
+        // Video URLs in the list depend on the caller's approved courses
+        String etag = "W/\"catalog-" + courseManagementFacade.getCatalogVersion()
+                + "-" + courseManagementFacade.getEntitlementFingerprint() + "\"";
+        long lastModified = courseManagementFacade.getCatalogLastModified().toEpochMilli();
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(courseManagementFacade.getAllCourses());
+    }
+
+    @GetMapping("/catalog")
+    public ResponseEntity<CursorPageResponse<CourseResponse>> getCatalog(@ModelAttribute CourseCatalogRequest request) {
+        return ResponseEntity.ok(courseManagementFacade.getCatalogPage(request));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<CourseSearchResponse>> searchCourses(@RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseManagementFacade.searchCourses(query, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<CatalogFacetsResponse> getCatalogFacets() {
+        return ResponseEntity.ok(courseManagementFacade.getCatalogFacets());
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingCourseResponse>> getTrendingCourses(
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseManagementFacade.getTrendingCourses(TrendingWindow.of(window), limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CourseResponse> getCourse(@PathVariable Long id) {
-        return ResponseEntity.ok(courseManagementFacade.getCourse(id));
+    public ResponseEntity<CourseResponse> getCourse(@PathVariable Long id, WebRequest webRequest) {
+        CourseResponse course = courseManagementFacade.getCourse(id);
+        long lastModified = toEpochMilli(course.getUpdatedDate());
+        // The video URL is masked per caller, so it is part of the validator
+        String version = lastModified > 0 ? String.valueOf(lastModified) : "c" + courseManagementFacade.getCatalogVersion();
+        String etag = "W/\"" + id + "-" + version + (course.getUrlVideo() == null ? "-m" : "") + "\"";
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.AUTHORIZATION);
+        if (lastModified > 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(course);
     }
 
     @GetMapping("/{id}/details")
-    public ResponseEntity<org.example.khoahoconl.dto.response.EnhancedCourseResponse> getCourseDetails(@PathVariable Long id) {
-        return ResponseEntity.ok(courseManagementFacade.getEnhancedCourseDetails(id));
+    public ResponseEntity<byte[]> getCourseDetails(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        CourseDetailSnapshotStore.Snapshot snapshot = courseManagementFacade.getCourseDetailsSnapshot(id);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = snapshot.etag(gzip);
+        if (webRequest.checkNotModified(etag, snapshot.lastModified())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.lastModified() > 0) {
+            builder.lastModified(snapshot.lastModified());
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? snapshot.gzip() : snapshot.json());
     }
 
     @PostMapping("/enroll/{courseId}")
@@ -99,11 +183,31 @@ public class CourseController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    // Short-lived token for the stream below, which browsers open without an Authorization header
+    @PostMapping("/enrollment-status/{courseId}/stream-token")
+    public ResponseEntity<ApiResponse<String>> createEnrollmentStreamToken(@PathVariable Long courseId) {
+        ApiResponse<String> apiResponse = new ApiResponse<>();
+        apiResponse.setCode(200);
+        apiResponse.setMessage("Stream token issued.");
+        apiResponse.setResult(jwtTokenProvider.generateStreamToken(JwtPrincipal.current(), courseId));
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    // Sends the current status on connect, then every committed change for this user and course.
+    // Authenticated by the usual bearer header or by ?access_token= carrying a token from stream-token
+    @GetMapping(value = "/enrollment-status/{courseId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEnrollmentStatus(@PathVariable Long courseId) {
+        return enrollmentStatusNotifier.subscribe(getCurrentUserId(), courseId);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     private Long getCurrentUserId() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (principal instanceof UserDetails) {
-            String userName = ((UserDetails) principal).getUsername();
-            return userService.getUserIdByUsername(userName);
+        Long userId = JwtPrincipal.currentUserId();
+        if (userId != null) {
+            return userId;
         }
         throw new IllegalStateException("Could not retrieve user details from security context");
     }
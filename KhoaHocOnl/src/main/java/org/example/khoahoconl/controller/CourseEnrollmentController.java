@@ -3,9 +3,8 @@ package org.example.khoahoconl.controller;
 import lombok.RequiredArgsConstructor;
 import org.example.khoahoconl.dto.response.ApiResponse;
 
-import org.example.khoahoconl.service.UserService;
+import org.example.khoahoconl.security.JwtPrincipal;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,12 +14,10 @@ import org.springframework.web.bind.annotation.*;
 public class CourseEnrollmentController {
 
     private final org.example.khoahoconl.service.CourseManagementFacade courseManagementFacade;
-    private final UserService userService;
 
     @PostMapping("/{courseId}")
     public ResponseEntity<ApiResponse<String>> enrollCourse(@PathVariable Long courseId) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        Long userId = userService.getUserIdByUsername(username);
+        Long userId = JwtPrincipal.currentUserId();
         Long enrollmentId = courseManagementFacade.enrollUserInCourse(userId, courseId);
 
         ApiResponse<String> response = new ApiResponse<>();
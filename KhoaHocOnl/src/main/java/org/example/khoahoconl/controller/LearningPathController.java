@@ -0,0 +1,44 @@
+package org.example.khoahoconl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.khoahoconl.dto.response.ApiResponse;
+import org.example.khoahoconl.dto.response.LearningPathEnrollmentResponse;
+import org.example.khoahoconl.dto.response.PaymentResponse;
+import org.example.khoahoconl.security.JwtPrincipal;
+import org.example.khoahoconl.service.LearningPathService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping("/api/learning-paths")
+@RequiredArgsConstructor
+public class LearningPathController {
+
+    private final LearningPathService learningPathService;
+
+    @PostMapping("/{pathId}/enroll")
+    public ResponseEntity<ApiResponse<LearningPathEnrollmentResponse>> enrollInPath(@PathVariable Long pathId) {
+        Long userId = JwtPrincipal.currentUserId();
+        LearningPathEnrollmentResponse result = learningPathService.enrollInPath(userId, pathId);
+
+        ApiResponse<LearningPathEnrollmentResponse> response = new ApiResponse<>();
+        response.setCode(200);
+        response.setMessage("Learning path enrollment created. Please complete payment.");
+        response.setResult(result);
+        return ResponseEntity.ok(response);
+    }
+
+    // One payment for the path's unpaid enrollments; the webhook for the returned transaction id settles them all
+    @PostMapping("/{pathId}/payment")
+    public ResponseEntity<ApiResponse<PaymentResponse>> payForPath(@PathVariable Long pathId) {
+        Long userId = JwtPrincipal.currentUserId();
+        PaymentResponse result = learningPathService.initiateBundlePayment(userId, pathId);
+
+        ApiResponse<PaymentResponse> response = new ApiResponse<>();
+        response.setCode(200);
+        response.setMessage("Bundle payment initiated.");
+        response.setResult(result);
+        return ResponseEntity.ok(response);
+    }
+}
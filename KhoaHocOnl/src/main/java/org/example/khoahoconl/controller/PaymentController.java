@@ -0,0 +1,30 @@
+package org.example.khoahoconl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.khoahoconl.service.PaymentQrCodeService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping("/api/payment")
+@RequiredArgsConstructor
+public class PaymentController {
+
+    private final PaymentQrCodeService paymentQrCodeService;
+
+    // A transaction's payload never changes, so browsers and proxies may keep the image indefinitely
+    @GetMapping("/qr/{transactionId}/{signature}")
+    public ResponseEntity<byte[]> getPaymentQrCode(@PathVariable String transactionId, @PathVariable String signature,
+            @RequestParam(defaultValue = "png") String format) {
+        PaymentQrCodeService.Format imageFormat = PaymentQrCodeService.Format.of(format);
+        byte[] image = paymentQrCodeService.render(transactionId, signature, imageFormat);
+        return ResponseEntity.ok()
+                .contentType(imageFormat.getMediaType())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .body(image);
+    }
+}
@@ -6,8 +6,8 @@ import lombok.experimental.FieldDefaults;
 import org.example.khoahoconl.dto.request.UserUpdateRequest;
 import org.example.khoahoconl.dto.response.ApiResponse;
 import org.example.khoahoconl.dto.response.UserResponse;
+import org.example.khoahoconl.security.JwtPrincipal;
 import org.example.khoahoconl.service.UserService;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -21,9 +21,7 @@ public class UserController {
 
     @GetMapping("myinfo")
     UserResponse getMyInfo() {
-        var context = SecurityContextHolder.getContext();
-        String name = context.getAuthentication().getName();
-        return userService.getMyInfo(name);
+        return userService.getMyInfo(JwtPrincipal.currentUserId());
     }
 
     @PutMapping("/update")
@@ -37,9 +35,7 @@ public class UserController {
 
     @GetMapping("/enrolled-courses")
     public ApiResponse<java.util.List<org.example.khoahoconl.dto.response.CourseResponse>> getEnrolledCourses() {
-        var context = SecurityContextHolder.getContext();
-        String userName = context.getAuthentication().getName();
-        Long userId = userService.getUserIdByUsername(userName);
+        Long userId = JwtPrincipal.currentUserId();
 
         ApiResponse<java.util.List<org.example.khoahoconl.dto.response.CourseResponse>> apiResponse = new ApiResponse<>();
         apiResponse.setMessage("Enrolled courses retrieved successfully.");
@@ -50,9 +46,7 @@ public class UserController {
 
     @GetMapping("/all-enrollments")
     public ApiResponse<java.util.List<java.util.Map<String, Object>>> getAllEnrollments() {
-        var context = SecurityContextHolder.getContext();
-        String userName = context.getAuthentication().getName();
-        Long userId = userService.getUserIdByUsername(userName);
+        Long userId = JwtPrincipal.currentUserId();
 
         ApiResponse<java.util.List<java.util.Map<String, Object>>> apiResponse = new ApiResponse<>();
         apiResponse.setMessage("All enrollments retrieved successfully.");
@@ -13,20 +13,17 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class WebhookController {
 
-    private final org.example.khoahoconl.service.PaymentService paymentService;
+    private final org.example.khoahoconl.service.PaymentWebhookInbox paymentWebhookInbox;
 
+    // Acknowledged once the delivery is stored; the status change is applied asynchronously
     @PostMapping("/webhook/payment")
     public ResponseEntity<ApiResponse<String>> handlePaymentWebhook(@RequestBody WebhookRequest request) {
-        paymentService.handleWebhookPayment(
-                request.getCourseEnrollmentId(),
-                request.getTransactionId(),
-                request.getStatus()
-        );
+        boolean accepted = paymentWebhookInbox.accept(request);
 
         ApiResponse<String> response = new ApiResponse<>();
         response.setCode(200);
-        response.setMessage("Webhook received and processed successfully");
-        response.setResult("Payment status updated");
+        response.setMessage(accepted ? "Webhook received and queued for processing" : "Duplicate webhook ignored");
+        response.setResult(request.getTransactionId());
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,31 @@
+package org.example.khoahoconl.dto.request;
+
+import java.math.BigDecimal;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.enums.CatalogSort;
+import org.springframework.data.domain.Sort;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CourseCatalogRequest {
+
+    String cursor;
+    Integer size;
+    @Builder.Default
+    CatalogSort sort = CatalogSort.ID;
+    @Builder.Default
+    Sort.Direction direction = Sort.Direction.ASC;
+    String category;
+    String level;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+}
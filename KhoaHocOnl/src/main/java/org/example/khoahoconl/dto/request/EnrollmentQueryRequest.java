@@ -0,0 +1,34 @@
+package org.example.khoahoconl.dto.request;
+
+import java.time.LocalDateTime;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.enums.Status;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EnrollmentQueryRequest {
+
+    String cursor;
+    Integer size;
+    // Sorted by request date; ascending serves the approval queue oldest first
+    @Builder.Default
+    Sort.Direction direction = Sort.Direction.DESC;
+    Status status;
+    Long courseId;
+    // Inclusive lower and exclusive upper bound on the request date
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime to;
+}
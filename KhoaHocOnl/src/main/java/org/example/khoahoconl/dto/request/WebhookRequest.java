@@ -6,6 +6,7 @@ import org.example.khoahoconl.enums.Status;
 @Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class WebhookRequest {
+    // Ignored; the enrollment is read from the ledger row of the transaction id
     private Long courseEnrollmentId;
     private String transactionId;
     private Status status;
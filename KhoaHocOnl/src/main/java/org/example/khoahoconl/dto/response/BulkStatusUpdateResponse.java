@@ -0,0 +1,20 @@
+package org.example.khoahoconl.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkStatusUpdateResponse {
+    // Enrollments moved to the target status
+    List<Long> updated ;
+    // Enrollments that exist but were not in the expected status
+    List<Long> skipped ;
+    List<Long> notFound ;
+
+}
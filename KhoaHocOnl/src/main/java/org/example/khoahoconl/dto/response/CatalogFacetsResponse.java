@@ -0,0 +1,29 @@
+package org.example.khoahoconl.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogFacetsResponse {
+
+    private List<FacetCount> categories;
+    private List<FacetCount> levels;
+    private List<FacetCount> priceBands;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FacetCount {
+
+        private String value;
+        private long count;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.khoahoconl.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseImportJobResponse {
+
+    private String jobId;
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String status;
+    private int coursesTotal;
+    // Courses written, unchanged or failed so far
+    private int coursesProcessed;
+    private int coursesFailed;
+    private double percentComplete;
+    // Null until the first chunk commits
+    private Double coursesPerSecond;
+    private Long etaSeconds;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String failure;
+    // The first failed courses; coursesFailed has the full count
+    private List<CourseError> errors;
+    private CourseImportResponse result;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CourseError {
+
+        // Index in the payload, set when the course could not be read
+        private Integer position;
+        private Long courseId;
+        private String message;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.khoahoconl.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseImportResponse {
+
+    private int coursesCreated;
+    private int coursesUpdated;
+    // Courses whose payload matched the last import and were not written
+    private int coursesUnchanged;
+    // Rows inserted
+    private int learningObjectives;
+    private int chapters;
+    private int lessons;
+    // Objective, chapter and lesson rows changed in place or removed
+    private int rowsUpdated;
+    private int rowsDeleted;
+    // Chapters of changed courses whose content matched the stored chapter
+    private int chaptersUnchanged;
+    private int prerequisites;
+    // Prerequisite ids that matched no course and were skipped
+    private int missingPrerequisites;
+    // Prerequisites skipped because they would close a cycle
+    private int cyclicPrerequisites;
+    // Course ids of each cycle found, ascending
+    private List<List<Long>> prerequisiteCycles;
+    private int chunks;
+    private long elapsedMillis;
+}
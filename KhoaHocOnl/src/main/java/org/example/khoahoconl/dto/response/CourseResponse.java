@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -17,4 +18,5 @@ public class CourseResponse {
     private String urlVideo;
     private BigDecimal price;
     private UserResponse createBy;
+    private LocalDateTime updatedDate;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package org.example.khoahoconl.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseSearchResponse {
+    private CourseResponse course;
+    private double score;
+}
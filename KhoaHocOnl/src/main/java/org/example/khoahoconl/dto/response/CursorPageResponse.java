@@ -0,0 +1,21 @@
+package org.example.khoahoconl.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    // Opaque token for the next page, null on the last page
+    private String nextCursor;
+}
@@ -1,6 +1,7 @@
 package org.example.khoahoconl.dto.response;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import lombok.AllArgsConstructor;
@@ -20,6 +21,7 @@ public class EnhancedCourseResponse {
     private String urlVideo;
     private BigDecimal price;
     private UserResponse createBy;
+    private LocalDateTime updatedDate;
 
     // Enhanced fields
     private List<String> learningObjectives;
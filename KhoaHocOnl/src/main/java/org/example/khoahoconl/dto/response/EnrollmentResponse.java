@@ -3,14 +3,23 @@ package org.example.khoahoconl.dto.response;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class EnrollmentResponse {
+    Long courseEnrollmentId ;
     long userId ;
+    String userName ;
+    String userFullName ;
+    Long courseId ;
     String courseTitle ;
+    BigDecimal coursePrice ;
     String status ;
+    LocalDateTime requestDate ;
 
 }
@@ -0,0 +1,26 @@
+package org.example.khoahoconl.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LearningPathEnrollmentResponse {
+
+    private Long pathId;
+    private String title;
+    private BigDecimal bundlePrice;
+    private BigDecimal originalPrice;
+    private Integer discountPercentage;
+    private List<Long> enrollmentIds;
+    private List<Long> enrolledCourseIds;
+    // Courses the user already had an enrollment for, in any status
+    private List<Long> skippedCourseIds;
+}
@@ -1,8 +1,12 @@
 package org.example.khoahoconl.dto.response;
 
+import java.math.BigDecimal;
+
 public class PaymentResponse {
     private String paymentQRCodeUrl;
     private String message;
+    private String transactionId;
+    private BigDecimal amount;
 
     // Constructors
     public PaymentResponse() {}
@@ -12,6 +16,13 @@ public class PaymentResponse {
         this.message = message;
     }
 
+    public PaymentResponse(String paymentQRCodeUrl, String message, String transactionId, BigDecimal amount) {
+        this.paymentQRCodeUrl = paymentQRCodeUrl;
+        this.message = message;
+        this.transactionId = transactionId;
+        this.amount = amount;
+    }
+
     // Builder pattern
     public static PaymentResponseBuilder builder() {
         return new PaymentResponseBuilder();
@@ -20,6 +31,8 @@ public class PaymentResponse {
     public static class PaymentResponseBuilder {
         private String paymentQRCodeUrl;
         private String message;
+        private String transactionId;
+        private BigDecimal amount;
 
         public PaymentResponseBuilder paymentQRCodeUrl(String paymentQRCodeUrl) {
             this.paymentQRCodeUrl = paymentQRCodeUrl;
@@ -31,8 +44,18 @@ public class PaymentResponse {
             return this;
         }
 
+        public PaymentResponseBuilder transactionId(String transactionId) {
+            this.transactionId = transactionId;
+            return this;
+        }
+
+        public PaymentResponseBuilder amount(BigDecimal amount) {
+            this.amount = amount;
+            return this;
+        }
+
         public PaymentResponse build() {
-            return new PaymentResponse(paymentQRCodeUrl, message);
+            return new PaymentResponse(paymentQRCodeUrl, message, transactionId, amount);
         }
     }
 
@@ -42,4 +65,10 @@ public class PaymentResponse {
 
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
+
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.example.khoahoconl.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingCourseResponse {
+
+    private Long courseId;
+    private String courseTitle;
+    private long enrollments;
+    private long approvals;
+}
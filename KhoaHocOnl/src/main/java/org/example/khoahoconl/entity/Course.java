@@ -8,8 +8,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -26,7 +29,12 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @Builder
 @FieldDefaults(level = AccessLevel.PRIVATE)
-@Table(name = "course")
+@Table(name = "course", indexes = {
+    @Index(name = "idx_course_price_id", columnList = "price, course_id"),
+    @Index(name = "idx_course_created_date_id", columnList = "created_date, course_id"),
+    @Index(name = "idx_course_category", columnList = "category"),
+    @Index(name = "idx_course_level", columnList = "level")
+})
 public class Course {
 
     @Id
@@ -64,4 +72,22 @@ public class Course {
 
     @Column(length = 100)
     String category;
+
+    // Fingerprint of the last imported payload; cleared when the course is edited outside the import
+    @Column(name = "import_hash", length = 32)
+    String importHash;
+
+    @PrePersist
+    void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdDate == null) {
+            createdDate = now;
+        }
+        updatedDate = now;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedDate = LocalDateTime.now();
+    }
 }
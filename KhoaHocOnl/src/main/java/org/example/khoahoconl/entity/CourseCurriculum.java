@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,7 +28,10 @@ import lombok.experimental.FieldDefaults;
 public class CourseCurriculum {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.COURSE_CURRICULUM)
+    @TableGenerator(name = IdGenerators.COURSE_CURRICULUM, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.PK_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.COURSE_CURRICULUM, allocationSize = IdGenerators.ALLOCATION_SIZE)
     Long id;
 
     @ManyToOne
@@ -45,4 +49,8 @@ public class CourseCurriculum {
 
     @Column(name = "estimated_duration_minutes")
     Integer estimatedDurationMinutes;
+
+    // Fingerprint of the imported chapter and its lessons, display order excluded
+    @Column(name = "content_hash", length = 32)
+    String contentHash;
 }
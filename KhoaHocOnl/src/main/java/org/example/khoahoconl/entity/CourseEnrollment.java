@@ -13,18 +13,32 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @FieldDefaults(level = AccessLevel.PRIVATE)
-
+// Keyset paths of the admin listing: filter column, then request date with the id as tie-breaker
+@Table(name = "course_enrollment", uniqueConstraints = {
+    @UniqueConstraint(name = CourseEnrollment.USER_COURSE_CONSTRAINT, columnNames = {"user_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_enrollment_status_request_date", columnList = "status, request_date, course_enrollment_id"),
+    @Index(name = "idx_enrollment_course_request_date", columnList = "course_id, request_date, course_enrollment_id"),
+    @Index(name = "idx_enrollment_request_date", columnList = "request_date, course_enrollment_id")
+})
 public class CourseEnrollment {
 
+    public static final String USER_COURSE_CONSTRAINT = "uk_enrollment_user_course";
+    public static final String USER_FOREIGN_KEY = "fk_enrollment_user";
+    public static final String COURSE_FOREIGN_KEY = "fk_enrollment_course";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.COURSE_ENROLLMENT)
+    @TableGenerator(name = IdGenerators.COURSE_ENROLLMENT, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.PK_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.COURSE_ENROLLMENT, allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "course_enrollment_id")
     Long courseEnrollmentId;
     @ManyToOne
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(name = USER_FOREIGN_KEY))
     User user;
     @ManyToOne
-    @JoinColumn(name = "course_id")
+    @JoinColumn(name = "course_id", foreignKey = @ForeignKey(name = COURSE_FOREIGN_KEY))
     Course course;
     @Enumerated(EnumType.STRING)
     @Column(length = 20)
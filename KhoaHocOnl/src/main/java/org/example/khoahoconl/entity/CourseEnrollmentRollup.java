@@ -0,0 +1,56 @@
+package org.example.khoahoconl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * Enrollment and approval counts of one course in one UTC hour
+ * ({@code bucket_hour} is hours since the epoch).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "course_enrollment_rollup", indexes = {
+    @Index(name = "idx_enrollment_rollup_hour", columnList = "bucket_hour")
+})
+public class CourseEnrollmentRollup {
+
+    @EmbeddedId
+    Key id;
+
+    @Column(nullable = false)
+    long enrollments;
+
+    @Column(nullable = false)
+    long approvals;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+
+        @Column(name = "course_id", nullable = false)
+        Long courseId;
+
+        @Column(name = "bucket_hour", nullable = false)
+        Long bucketHour;
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,7 +28,10 @@ import lombok.experimental.FieldDefaults;
 public class CourseLearningObjective {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.COURSE_LEARNING_OBJECTIVE)
+    @TableGenerator(name = IdGenerators.COURSE_LEARNING_OBJECTIVE, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.PK_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.COURSE_LEARNING_OBJECTIVE, allocationSize = IdGenerators.ALLOCATION_SIZE)
     Long id;
 
     @ManyToOne
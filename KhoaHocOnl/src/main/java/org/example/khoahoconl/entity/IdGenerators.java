@@ -0,0 +1,30 @@
+package org.example.khoahoconl.entity;
+
+/**
+ * Pooled table id generators. Unlike IDENTITY they let Hibernate assign ids
+ * before the insert, so inserts can be sent as JDBC batches. All generators
+ * share one table with a row per generator; see {@code IdGeneratorAligner}.
+ * <p>
+ * Once every {@link #ALLOCATION_SIZE} ids Hibernate reserves the next block on
+ * a second pooled connection, while the calling transaction still holds its
+ * own. If every connection is held by a request waiting on that block, the
+ * fetch stalls until Hikari's connection-timeout and then fails. Size
+ * {@code spring.datasource.hikari.maximum-pool-size} above the number of
+ * request threads that can insert into these tables at once.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String PK_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String COURSE_ENROLLMENT = "course_enrollment";
+    public static final String COURSE_CURRICULUM = "course_curriculum";
+    public static final String CURRICULUM_LESSON = "curriculum_lesson";
+    public static final String COURSE_LEARNING_OBJECTIVE = "course_learning_objectives";
+    public static final String COURSE_PREREQUISITE = "course_prerequisites";
+
+    private IdGenerators() {
+    }
+}
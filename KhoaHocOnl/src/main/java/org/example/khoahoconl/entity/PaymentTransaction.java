@@ -0,0 +1,96 @@
+package org.example.khoahoconl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.enums.Status;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One payment attempt for an enrollment. The primary key is assigned by
+ * {@code TransactionIdGenerator}, so inserts need no identity round trip.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "payment_transaction", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payment_transaction_txn", columnNames = "transaction_id")
+}, indexes = {
+    @Index(name = "idx_payment_transaction_enrollment", columnList = "course_enrollment_id, status"),
+    @Index(name = "idx_payment_transaction_bundle", columnList = "bundle_transaction_id")
+})
+public class PaymentTransaction implements Persistable<Long> {
+
+    @Id
+    @Column(name = "payment_transaction_id")
+    Long paymentTransactionId;
+
+    @Column(name = "transaction_id", nullable = false, length = 40)
+    String transactionId;
+
+    @Column(name = "course_enrollment_id", nullable = false)
+    Long courseEnrollmentId;
+
+    @Column(name = "course_id", nullable = false)
+    Long courseId;
+
+    @Column(precision = 15, scale = 2)
+    BigDecimal amount;
+
+    // Set on every row of a learning path bundle; the gateway charges the bundle id, not the row ids
+    @Column(name = "bundle_transaction_id", length = 40)
+    String bundleTransactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    Status status;
+
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+
+    // Assigned ids would otherwise make save() merge, costing a select before every insert
+    @Transient
+    @Builder.Default
+    boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return paymentTransactionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newEntity = false;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.khoahoconl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable inbox row for one payment gateway delivery. The unique transaction
+ * id turns gateway retries into no-ops; rows without {@code processedAt} are
+ * still waiting to be applied.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "payment_webhook_inbox", uniqueConstraints = {
+    @UniqueConstraint(name = PaymentWebhookEvent.TRANSACTION_CONSTRAINT, columnNames = "transaction_id")
+}, indexes = {
+    @Index(name = "idx_webhook_inbox_processed", columnList = "processed_at, id")
+})
+public class PaymentWebhookEvent {
+
+    public static final String TRANSACTION_CONSTRAINT = "uk_webhook_inbox_transaction";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "transaction_id", nullable = false, length = 100)
+    String transactionId;
+
+    @Column(name = "course_enrollment_id", nullable = false)
+    Long courseEnrollmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    Status status;
+
+    @Column(name = "received_at", nullable = false)
+    LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    LocalDateTime processedAt;
+}
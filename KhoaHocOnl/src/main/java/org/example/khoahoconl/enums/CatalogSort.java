@@ -0,0 +1,16 @@
+package org.example.khoahoconl.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum CatalogSort {
+    ID("courseId"),
+    PRICE("price"),
+    CREATED_DATE("createdDate");
+
+    private final String attribute;
+
+    CatalogSort(String attribute) {
+        this.attribute = attribute;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.khoahoconl.enums;
+
+import java.math.BigDecimal;
+
+public enum PriceBand {
+    FREE,
+    UNDER_500K,
+    FROM_500K_TO_1M,
+    FROM_1M_TO_2M,
+    OVER_2M;
+
+    private static final BigDecimal FIVE_HUNDRED_K = BigDecimal.valueOf(500_000);
+    private static final BigDecimal ONE_M = BigDecimal.valueOf(1_000_000);
+    private static final BigDecimal TWO_M = BigDecimal.valueOf(2_000_000);
+
+    public static PriceBand of(BigDecimal price) {
+        if (price == null || price.signum() <= 0) {
+            return FREE;
+        }
+        if (price.compareTo(FIVE_HUNDRED_K) < 0) {
+            return UNDER_500K;
+        }
+        if (price.compareTo(ONE_M) < 0) {
+            return FROM_500K_TO_1M;
+        }
+        if (price.compareTo(TWO_M) < 0) {
+            return FROM_1M_TO_2M;
+        }
+        return OVER_2M;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.khoahoconl.enums;
+
+public enum TrendingWindow {
+    HOUR(1),
+    DAY(24),
+    WEEK(168);
+
+    private final int hours;
+
+    TrendingWindow(int hours) {
+        this.hours = hours;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    public static TrendingWindow of(String value) {
+        for (TrendingWindow window : values()) {
+            if (window.name().equalsIgnoreCase(value)) {
+                return window;
+            }
+        }
+        return DAY;
+    }
+}
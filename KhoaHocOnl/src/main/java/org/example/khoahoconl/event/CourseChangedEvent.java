@@ -0,0 +1,26 @@
+package org.example.khoahoconl.event;
+
+/**
+ * Published whenever a course row or any of its curriculum, objective or
+ * prerequisite rows is written. Listeners react after the transaction commits.
+ */
+public record CourseChangedEvent(Long courseId, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static CourseChangedEvent created(Long courseId) {
+        return new CourseChangedEvent(courseId, ChangeType.CREATED);
+    }
+
+    public static CourseChangedEvent updated(Long courseId) {
+        return new CourseChangedEvent(courseId, ChangeType.UPDATED);
+    }
+
+    public static CourseChangedEvent deleted(Long courseId) {
+        return new CourseChangedEvent(courseId, ChangeType.DELETED);
+    }
+}
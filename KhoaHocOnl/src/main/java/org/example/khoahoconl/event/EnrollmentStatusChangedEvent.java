@@ -0,0 +1,22 @@
+package org.example.khoahoconl.event;
+
+import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.enums.Status;
+
+/**
+ * Published whenever an enrollment is created or its status is written.
+ * {@code previousStatus} is null for a new enrollment. Listeners react after
+ * the transaction commits.
+ */
+public record EnrollmentStatusChangedEvent(Long enrollmentId, Long userId, Long courseId,
+        Status previousStatus, Status status) {
+
+    public static EnrollmentStatusChangedEvent of(CourseEnrollment enrollment, Status previousStatus) {
+        return new EnrollmentStatusChangedEvent(
+                enrollment.getCourseEnrollmentId(),
+                enrollment.getUser().getUserId(),
+                enrollment.getCourse().getCourseId(),
+                previousStatus,
+                enrollment.getStatus());
+    }
+}
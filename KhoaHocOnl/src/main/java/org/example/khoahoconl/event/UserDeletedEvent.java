@@ -0,0 +1,8 @@
+package org.example.khoahoconl.event;
+
+/**
+ * Published when a user row is deleted. Listeners react after the transaction
+ * commits, so a rolled-back delete leaves the user's tokens valid.
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -16,7 +16,13 @@ public enum ErrorCode {
     UNCATEGORIZED_EXCEPTION(1007, "Uncategorized exception", HttpStatus.INTERNAL_SERVER_ERROR),
     INVALID_PASSWORD(1008 , "password must be at least 8 characters", HttpStatus.BAD_REQUEST),
     USERNAME_INVALID(1009 , "userName must be at least 3 characters", HttpStatus.BAD_REQUEST),
-    ALREADY_PAID(1010 , "Already paid", HttpStatus.BAD_REQUEST);
+    ALREADY_PAID(1010 , "Already paid", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(1011, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+    INVALID_WEBHOOK(1012, "Webhook must carry a transaction id and a status", HttpStatus.BAD_REQUEST),
+    PAYMENT_NOT_FOUND(1013, "Payment transaction not found", HttpStatus.NOT_FOUND),
+    LEARNING_PATH_NOT_FOUND(1014, "Learning path not found", HttpStatus.NOT_FOUND),
+    INVALID_IMPORT(1015, "Import payload must be a JSON array of course objects", HttpStatus.BAD_REQUEST),
+    IMPORT_JOB_NOT_FOUND(1016, "Import job not found or expired", HttpStatus.NOT_FOUND);
 
     private final int code;
     private final String message;
@@ -13,6 +13,7 @@ public interface CourseMapper {
 
     @Mapping(target = "courseId", ignore = true)
     @Mapping(target = "createBy", ignore = true)
+    @Mapping(target = "importHash", ignore = true)
     Course toEntity(CourseCreationRequest request);
 
     @Mapping(target = "courseId", source = "courseId")
@@ -25,6 +26,7 @@ public interface CourseMapper {
 
     @Mapping(target = "courseId", ignore = true)
     @Mapping(target = "createBy", ignore = true)
+    @Mapping(target = "importHash", ignore = true)
     @Mapping(target = "courseTitle", source = "courseTitle")
     void updateCourse(@MappingTarget Course course, CourseUpdateRequest request);
 }
@@ -2,6 +2,7 @@ package org.example.khoahoconl.mapper;
 
 import org.example.khoahoconl.dto.response.EnrollmentResponse;
 import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.repository.AdminEnrollmentView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -9,7 +10,14 @@ import org.mapstruct.Mapping;
 public interface EnrollmentMapper {
 
     @Mapping(target = "userId", source = "user.userId")
+    @Mapping(target = "userName", source = "user.userName")
+    @Mapping(target = "userFullName", source = "user.fullName")
+    @Mapping(target = "courseId", source = "course.courseId")
     @Mapping(target = "courseTitle", source = "course.courseTitle")
+    @Mapping(target = "coursePrice", source = "course.price")
     @Mapping(target = "status", expression = "java(enrollment.getStatus() != null ? enrollment.getStatus().name() : null)")
     EnrollmentResponse toResponse(CourseEnrollment enrollment);
+
+    @Mapping(target = "status", expression = "java(view.getStatus() != null ? view.getStatus().name() : null)")
+    EnrollmentResponse toResponse(AdminEnrollmentView view);
 }
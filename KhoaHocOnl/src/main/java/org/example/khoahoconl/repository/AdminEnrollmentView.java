@@ -0,0 +1,30 @@
+package org.example.khoahoconl.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.example.khoahoconl.enums.Status;
+
+/**
+ * Flat row for the admin enrollment listing; only these columns are selected.
+ */
+public interface AdminEnrollmentView {
+
+    Long getCourseEnrollmentId();
+
+    Long getUserId();
+
+    String getUserName();
+
+    String getUserFullName();
+
+    Long getCourseId();
+
+    String getCourseTitle();
+
+    BigDecimal getCoursePrice();
+
+    Status getStatus();
+
+    LocalDateTime getRequestDate();
+}
@@ -1,13 +1,25 @@
 package org.example.khoahoconl.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.example.khoahoconl.entity.CourseCurriculum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CourseCurriculumRepository extends JpaRepository<CourseCurriculum, Long> {
 
     List<CourseCurriculum> findByCourse_CourseIdOrderByDisplayOrder(Long courseId);
+
+    @Query("select c from CourseCurriculum c join fetch c.course co left join fetch co.createBy "
+            + "where co.courseId in :courseIds order by c.displayOrder, c.id")
+    List<CourseCurriculum> findByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    @Modifying
+    @Query("delete from CourseCurriculum c where c.course.courseId in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
 }
@@ -1,18 +1,68 @@
 package org.example.khoahoconl.repository;
 
 import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.enums.Status;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface CourseEnrollmentRepository extends JpaRepository<CourseEnrollment, Long> {
 
+    // Optional filters: a null parameter disables its condition
+    String ADMIN_VIEW_QUERY = "select e.courseEnrollmentId as courseEnrollmentId, u.userId as userId, "
+            + "u.userName as userName, u.fullName as userFullName, c.courseId as courseId, "
+            + "c.courseTitle as courseTitle, c.price as coursePrice, "
+            + "e.status as status, e.requestDate as requestDate "
+            + "from CourseEnrollment e join e.user u join e.course c "
+            + "where (:status is null or e.status = :status) "
+            + "and (:courseId is null or c.courseId = :courseId) "
+            + "and (:from is null or e.requestDate >= :from) "
+            + "and (:to is null or e.requestDate < :to) ";
+
     Optional<CourseEnrollment> findByUser_UserIdAndCourse_CourseId(Long userId, Long courseId);
 
     java.util.List<CourseEnrollment> findByUser_UserIdAndStatus(Long userId, org.example.khoahoconl.enums.Status status);
 
     java.util.List<CourseEnrollment> findByUser_UserId(Long userId);
 
+    // Rows of [courseId, enrollmentId, status]
+    @Query("select e.course.courseId, e.courseEnrollmentId, e.status from CourseEnrollment e where e.user.userId = :userId")
+    java.util.List<Object[]> findEntitlementRowsByUserId(@Param("userId") Long userId);
+
+    // Rows of [enrollmentId, userId, courseId, status]
+    @Query("select e.courseEnrollmentId, e.user.userId, e.course.courseId, e.status from CourseEnrollment e "
+            + "where e.courseEnrollmentId in :ids")
+    java.util.List<Object[]> findStatusRowsByIds(@Param("ids") java.util.Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    // A null expected status matches any status other than the target
+    @Query("update CourseEnrollment e set e.status = :target "
+            + "where e.courseEnrollmentId in :ids and (:expected is null or e.status = :expected) "
+            + "and e.status <> :target")
+    int updateStatusWhereStatus(@Param("ids") java.util.Collection<Long> ids,
+            @Param("expected") Status expected, @Param("target") Status target);
+
+    @Query(ADMIN_VIEW_QUERY
+            + "and (:afterId is null or e.requestDate > :afterDate "
+            + "or (e.requestDate = :afterDate and e.courseEnrollmentId > :afterId)) "
+            + "order by e.requestDate asc, e.courseEnrollmentId asc")
+    java.util.List<AdminEnrollmentView> findAdminViewAscending(@Param("status") Status status,
+            @Param("courseId") Long courseId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(ADMIN_VIEW_QUERY
+            + "and (:afterId is null or e.requestDate < :afterDate "
+            + "or (e.requestDate = :afterDate and e.courseEnrollmentId < :afterId)) "
+            + "order by e.requestDate desc, e.courseEnrollmentId desc")
+    java.util.List<AdminEnrollmentView> findAdminViewDescending(@Param("status") Status status,
+            @Param("courseId") Long courseId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId, Limit limit);
+
 }
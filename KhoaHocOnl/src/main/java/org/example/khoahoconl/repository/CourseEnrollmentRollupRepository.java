@@ -0,0 +1,26 @@
+package org.example.khoahoconl.repository;
+
+import org.example.khoahoconl.entity.CourseEnrollmentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourseEnrollmentRollupRepository
+        extends JpaRepository<CourseEnrollmentRollup, CourseEnrollmentRollup.Key> {
+
+    List<CourseEnrollmentRollup> findByIdBucketHourGreaterThanEqual(Long bucketHour);
+
+    // Adds to the stored counts so every node can flush its own deltas
+    @Modifying
+    @Query(value = "insert into course_enrollment_rollup (course_id, bucket_hour, enrollments, approvals) "
+            + "values (:courseId, :bucketHour, :enrollments, :approvals) "
+            + "on duplicate key update enrollments = enrollments + values(enrollments), "
+            + "approvals = approvals + values(approvals)", nativeQuery = true)
+    int addCounts(@Param("courseId") Long courseId, @Param("bucketHour") Long bucketHour,
+            @Param("enrollments") long enrollments, @Param("approvals") long approvals);
+}
@@ -2,12 +2,31 @@ package org.example.khoahoconl.repository;
 
 import org.example.khoahoconl.entity.CourseLearningObjective;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CourseLearningObjectiveRepository extends JpaRepository<CourseLearningObjective, Long> {
 
     List<CourseLearningObjective> findByCourse_CourseIdOrderByDisplayOrder(Long courseId);
+
+    @Query("select o.objective from CourseLearningObjective o where o.course.courseId = :courseId order by o.displayOrder")
+    List<String> findObjectiveTextsByCourseId(@Param("courseId") Long courseId);
+
+    // Rows of [courseId, objective]
+    @Query("select o.course.courseId, o.objective from CourseLearningObjective o")
+    List<Object[]> findAllObjectiveTexts();
+
+    @Query("select o from CourseLearningObjective o join fetch o.course c left join fetch c.createBy "
+            + "where c.courseId in :courseIds order by o.displayOrder, o.id")
+    List<CourseLearningObjective> findByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    @Modifying
+    @Query("delete from CourseLearningObjective o where o.course.courseId in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
 }
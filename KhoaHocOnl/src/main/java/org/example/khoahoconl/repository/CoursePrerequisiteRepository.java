@@ -2,8 +2,12 @@ package org.example.khoahoconl.repository;
 
 import org.example.khoahoconl.entity.CoursePrerequisite;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,16 @@ public interface CoursePrerequisiteRepository extends JpaRepository<CoursePrereq
     List<CoursePrerequisite> findByCourse_CourseId(Long courseId);
 
     List<CoursePrerequisite> findByPrerequisiteCourse_CourseId(Long prerequisiteCourseId);
+
+    @Query("select p from CoursePrerequisite p join fetch p.prerequisiteCourse pc left join fetch pc.createBy "
+            + "where p.course.courseId = :courseId")
+    List<CoursePrerequisite> findWithPrerequisiteCourseByCourseId(@Param("courseId") Long courseId);
+
+    // (course id, prerequisite course id) of every prerequisite row
+    @Query("select p.course.courseId, p.prerequisiteCourse.courseId from CoursePrerequisite p")
+    List<Object[]> findAllEdges();
+
+    @Modifying
+    @Query("delete from CoursePrerequisite p where p.course.courseId in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
 }
@@ -1,13 +1,32 @@
 package org.example.khoahoconl.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.example.khoahoconl.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
 
     Optional<Course> findByCourseTitle(String courseTitle);
+
+    @Query("select c from Course c left join fetch c.createBy where c.courseId = :courseId")
+    Optional<Course> findWithCreatorByCourseId(@Param("courseId") Long courseId);
+
+    // Rows of [courseId, category, level, price]
+    @Query("select c.courseId, c.category, c.level, c.price from Course c")
+    List<Object[]> findAllFacetRows();
+
+    @Query("select c.courseId from Course c where c.courseId in :courseIds")
+    List<Long> findExistingIds(@Param("courseIds") Collection<Long> courseIds);
+
+    // Rows of [courseId, importHash] for the courses that exist
+    @Query("select c.courseId, c.importHash from Course c where c.courseId in :courseIds")
+    List<Object[]> findImportHashes(@Param("courseIds") Collection<Long> courseIds);
 }
@@ -0,0 +1,75 @@
+package org.example.khoahoconl.repository;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.example.khoahoconl.dto.request.CourseCatalogRequest;
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.enums.CatalogSort;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+public final class CourseSpecifications {
+
+    private CourseSpecifications() {
+    }
+
+    public static Specification<Course> withCreator() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("createBy", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Course> matches(CourseCatalogRequest request) {
+        return (root, query, cb) -> {
+            Predicate predicate = cb.conjunction();
+            if (StringUtils.hasText(request.getCategory())) {
+                predicate = cb.and(predicate, cb.equal(root.get("category"), request.getCategory()));
+            }
+            if (StringUtils.hasText(request.getLevel())) {
+                predicate = cb.and(predicate, cb.equal(root.get("level"), request.getLevel()));
+            }
+            if (request.getMinPrice() != null) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                predicate = cb.and(predicate, cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), request.getMaxPrice()));
+            }
+            return predicate;
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor in (sort key, course_id) order. NULL sort keys
+     * follow MySQL ordering: first when ascending, last when descending.
+     */
+    public static Specification<Course> after(CatalogSort sort, Sort.Direction direction, Comparable<?> lastValue, long lastId) {
+        return (root, query, cb) -> {
+            boolean ascending = direction == Sort.Direction.ASC;
+            Path<Long> id = root.get("courseId");
+            Predicate idAfter = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            if (sort == CatalogSort.ID) {
+                return idAfter;
+            }
+            return keyAfter(cb, root.get(sort.getAttribute()), lastValue, idAfter, ascending);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keyAfter(CriteriaBuilder cb, Path field, Comparable lastValue, Predicate idAfter, boolean ascending) {
+        if (lastValue == null) {
+            Predicate sameNullKey = cb.and(cb.isNull(field), idAfter);
+            return ascending ? cb.or(sameNullKey, cb.isNotNull(field)) : sameNullKey;
+        }
+        Predicate beyond = ascending ? cb.greaterThan(field, lastValue) : cb.lessThan(field, lastValue);
+        Predicate sameKey = cb.and(cb.equal(field, lastValue), idAfter);
+        return ascending ? cb.or(beyond, sameKey) : cb.or(beyond, sameKey, cb.isNull(field));
+    }
+}
@@ -2,8 +2,12 @@ package org.example.khoahoconl.repository;
 
 import org.example.khoahoconl.entity.CurriculumLesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,25 @@ public interface CurriculumLessonRepository extends JpaRepository<CurriculumLess
     List<CurriculumLesson> findByCurriculumIdOrderByDisplayOrder(Long curriculumId);
 
     void deleteByCurriculumId(Long curriculumId);
+
+    @Query("select l from CurriculumLesson l join fetch l.curriculum c "
+            + "where c.course.courseId = :courseId order by c.displayOrder, l.displayOrder")
+    List<CurriculumLesson> findAllByCourseId(@Param("courseId") Long courseId);
+
+    @Query("select l.lessonTitle from CurriculumLesson l where l.curriculum.course.courseId = :courseId")
+    List<String> findLessonTitlesByCourseId(@Param("courseId") Long courseId);
+
+    // Rows of [courseId, lessonTitle]
+    @Query("select c.course.courseId, l.lessonTitle from CurriculumLesson l join l.curriculum c")
+    List<Object[]> findAllLessonTitles();
+
+    @Query("select l from CurriculumLesson l join fetch l.curriculum c join fetch c.course co left join fetch co.createBy "
+            + "where co.courseId in :courseIds order by l.displayOrder, l.id")
+    List<CurriculumLesson> findByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    // Lessons reference chapters, so they go before the chapters of the same courses
+    @Modifying
+    @Query("delete from CurriculumLesson l where l.curriculum.id in "
+            + "(select c.id from CourseCurriculum c where c.course.courseId in :courseIds)")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
 }
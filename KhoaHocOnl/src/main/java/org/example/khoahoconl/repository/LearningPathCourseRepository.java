@@ -2,6 +2,8 @@ package org.example.khoahoconl.repository;
 
 import org.example.khoahoconl.entity.LearningPathCourse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,8 @@ public interface LearningPathCourseRepository extends JpaRepository<LearningPath
     List<LearningPathCourse> findByLearningPath_PathIdOrderBySequenceOrder(Long pathId);
 
     List<LearningPathCourse> findByCourse_CourseId(Long courseId);
+
+    @Query("select lpc.course.courseId from LearningPathCourse lpc "
+            + "where lpc.learningPath.pathId = :pathId order by lpc.sequenceOrder")
+    List<Long> findCourseIdsByPathId(@Param("pathId") Long pathId);
 }
@@ -0,0 +1,34 @@
+package org.example.khoahoconl.repository;
+
+import org.example.khoahoconl.entity.PaymentTransaction;
+import org.example.khoahoconl.enums.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentTransactionRepository extends JpaRepository<PaymentTransaction, Long> {
+
+    Optional<PaymentTransaction> findByTransactionId(String transactionId);
+
+    List<PaymentTransaction> findByBundleTransactionId(String bundleTransactionId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PaymentTransaction p set p.status = :status, p.updatedAt = :now "
+            + "where p.transactionId in :transactionIds and p.status <> :status")
+    int updateStatusByTransactionIds(@Param("transactionIds") Collection<String> transactionIds,
+            @Param("status") Status status, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PaymentTransaction p set p.status = :status, p.updatedAt = :now "
+            + "where p.courseEnrollmentId = :enrollmentId and p.status = org.example.khoahoconl.enums.Status.PENDING")
+    int settlePendingByEnrollmentId(@Param("enrollmentId") Long enrollmentId,
+            @Param("status") Status status, @Param("now") LocalDateTime now);
+}
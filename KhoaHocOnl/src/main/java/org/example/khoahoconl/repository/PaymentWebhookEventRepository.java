@@ -0,0 +1,26 @@
+package org.example.khoahoconl.repository;
+
+import org.example.khoahoconl.entity.PaymentWebhookEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    List<PaymentWebhookEvent> findByProcessedAtIsNullAndReceivedAtBeforeOrderByIdAsc(LocalDateTime receivedBefore, Limit limit);
+
+    @Query("select w.id from PaymentWebhookEvent w where w.id in :ids and w.processedAt is null")
+    List<Long> findUnprocessedIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PaymentWebhookEvent w set w.processedAt = :processedAt where w.id in :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+}
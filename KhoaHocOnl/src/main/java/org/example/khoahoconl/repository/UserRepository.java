@@ -2,6 +2,8 @@ package org.example.khoahoconl.repository;
 
 import org.example.khoahoconl.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,7 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUserName(String userName);
     Optional<User> findByUserName(String userName);
+
+    @Query("select u.userId from User u where u.userName = :userName")
+    Optional<Long> findUserIdByUserName(@Param("userName") String userName);
 }
@@ -1,5 +1,6 @@
 package org.example.khoahoconl.security;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -9,8 +10,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -19,18 +18,21 @@ import org.springframework.lang.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final static String TOKEN_PREFIX = "Bearer ";
+    // EventSource cannot set headers, so this one path also takes a scoped stream token as a query parameter
+    private static final Pattern ENROLLMENT_STREAM_PATH = Pattern.compile("^/api/course/enrollment-status/(\\d{1,18})/stream$");
+    private static final String STREAM_TOKEN_PARAMETER = "access_token";
 
-    private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
-        this.tokenProvider = tokenProvider;
-        this.customUserDetailsService = customUserDetailsService;
+    public JwtAuthenticationFilter(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -43,19 +45,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String jwt = getJwtFromRequest(request);
+        String scope = null;
+        if (!StringUtils.hasText(jwt)) {
+            Matcher stream = ENROLLMENT_STREAM_PATH.matcher(requestUri);
+            if (stream.matches()) {
+                jwt = request.getParameter(STREAM_TOKEN_PARAMETER);
+                scope = JwtTokenProvider.enrollmentStreamScope(Long.valueOf(stream.group(1)));
+            }
+        }
 
         if (StringUtils.hasText(jwt)) {
             try {
-                if (tokenProvider.validateToken(jwt)) {
-                    String username = tokenProvider.getUserNameFromToken(jwt);
-                    UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+                // Verified at most once per token; failures land in the catches below
+                JwtPrincipal principal = tokenCache.resolve(jwt, scope);
+                if (principal != null) {
+                    // Built from the claims alone; the user table is only read at login
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                            principal, null, principal.authorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
-            } catch (UsernameNotFoundException ex) {
-                logger.error("User not found: {}", ex.getMessage());
             } catch (SignatureException ex) {
                 logger.error("Invalid JWT signature: {}", ex.getMessage());
             } catch (MalformedJwtException ex) {
@@ -66,6 +75,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 logger.error("Unsupported JWT token: {}", ex.getMessage());
             } catch (IllegalArgumentException ex) {
                 logger.error("JWT claims string is empty: {}", ex.getMessage());
+            } catch (JwtException ex) {
+                logger.error("Invalid JWT claims: {}", ex.getMessage());
             }
         }
 
@@ -0,0 +1,13 @@
+package org.example.khoahoconl.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a verified access token, read in one parse. userId and role are
+ * null for tokens issued by {@link JwtTokenProvider#generateToken}, which
+ * carries the subject only. scope is null for access tokens and set for
+ * tokens that only authorize one resource.
+ */
+public record JwtClaims(String userName, Long userId, String role, Instant issuedAt, Instant expiresAt,
+        String scope) {
+}
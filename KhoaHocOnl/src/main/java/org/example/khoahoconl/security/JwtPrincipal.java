@@ -0,0 +1,48 @@
+package org.example.khoahoconl.security;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * The authenticated caller, built from a verified token's claims alone, so
+ * reading the caller's id or role never touches the user table.
+ *
+ * @param role the token's authorities, comma separated, e.g. {@code ROLE_USER}
+ */
+public record JwtPrincipal(Long userId, String userName, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return userName;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return AuthorityUtils.commaSeparatedStringToAuthorityList(role);
+    }
+
+    /**
+     * @return the caller of the current request, or null for anonymous requests
+     */
+    public static JwtPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !(authentication.getPrincipal() instanceof JwtPrincipal principal)) {
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * @return the id of the current caller, or null for anonymous requests
+     */
+    public static Long currentUserId() {
+        JwtPrincipal principal = current();
+        return principal != null ? principal.userId() : null;
+    }
+}
@@ -3,10 +3,12 @@ package org.example.khoahoconl.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -23,7 +25,17 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration.ms}")
     private int jwtExpirationMs;
 
-    public JwtTokenProvider() {
+    @Value("${jwt.stream-token.ttl:PT1M}")
+    private Duration streamTokenTtl;
+
+    // Built once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
         logger.info("JwtTokenProvider initialized");
         logger.info("JWT Secret configured: {}", jwtSecret != null ? "Yes" : "No");
         logger.info("JWT Expiration: {} ms", jwtExpirationMs);
@@ -38,7 +50,7 @@ public class JwtTokenProvider {
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     public String generateTokenWithClaims(String username, Long userId, String role) {
@@ -54,30 +66,63 @@ public class JwtTokenProvider {
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .addClaims(claims)
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Issues a short-lived token that only authenticates the enrollment status
+     * stream of one course. EventSource cannot send an Authorization header, so
+     * the browser passes it as the access_token query parameter; the short
+     * lifetime and the scope limit the damage if the URL ends up in a log.
+     */
+    public String generateStreamToken(JwtPrincipal principal, Long courseId) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + streamTokenTtl.toMillis());
+
+        return Jwts.builder()
+                .setSubject(principal.userName())
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .claim("userId", principal.userId())
+                .claim("role", principal.role())
+                .claim("scope", enrollmentStreamScope(courseId))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public static String enrollmentStreamScope(Long courseId) {
+        return "enrollment-stream:" + courseId;
+    }
+
+    /**
+     * Verifies the token and reads its claims in a single parse.
+     *
+     * @throws JwtException if the token is malformed, expired or not signed with our key
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public JwtClaims parseToken(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("role", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims.get("scope", String.class));
+    }
+
     public String getUserNameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parseToken(token).userName();
     }
+
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("role", String.class);
+        return parseToken(token).role();
     }
 
     public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
+            parser.parseClaimsJws(authToken);
             return true;
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token: {}", ex.getMessage());
@@ -92,8 +137,4 @@ public class JwtTokenProvider {
         }
         return false;
     }
-
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-}
\ No newline at end of file
+}
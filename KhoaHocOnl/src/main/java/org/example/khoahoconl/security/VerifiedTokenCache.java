@@ -0,0 +1,170 @@
+package org.example.khoahoconl.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.khoahoconl.event.UserDeletedEvent;
+import org.example.khoahoconl.repository.UserRepository;
+import org.example.khoahoconl.service.CourseCatalogCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals of recently verified tokens, keyed by the token's SHA-256 digest
+ * so raw tokens are not kept in memory. A repeated bearer token is resolved
+ * with one hash instead of an HMAC check and a JSON parse. Each entry expires
+ * with its token, and revoking a user drops their entries and rejects every
+ * token issued to them up to that moment, whether cached or not.
+ * <p>
+ * Revocations are held in memory on the node that made them. Other nodes learn
+ * of them from the database: a token is only cached while its user still
+ * exists, and entries are re-verified after {@code jwt.cache.revalidate-after},
+ * so a deleted user's tokens stop working everywhere within that interval.
+ * The price is one primary-key lookup on the users table per token per
+ * interval; a cache hit still authenticates without any query.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    record Verified(JwtPrincipal principal, Instant issuedAt, Instant expiresAt, String scope) {
+    }
+
+    // An entry lives until its token's exp claim, but no longer than the revalidation interval
+    record UntilTokenExpiry(Duration revalidateAfter) implements Expiry<String, Verified> {
+
+        @Override
+        public long expireAfterCreate(String key, Verified verified, long currentTime) {
+            Duration remaining = verified.expiresAt() == null
+                    ? revalidateAfter
+                    : Duration.between(Instant.now(), verified.expiresAt());
+            return Math.max(0, Math.min(remaining.toNanos(), revalidateAfter.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Verified verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Verified verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private final JwtTokenProvider tokenProvider;
+    private final UserRepository userRepository;
+    private final Cache<String, Verified> tokens;
+    // User id to the moment their earlier tokens were revoked; kept for one token lifetime
+    private final ConcurrentHashMap<Long, Instant> revocations = new ConcurrentHashMap<>();
+    private final Duration tokenLifetime;
+
+    public VerifiedTokenCache(JwtTokenProvider tokenProvider, UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.revalidate-after:PT1M}") Duration revalidateAfter,
+            @Value("${jwt.expiration.ms}") long expirationMs) {
+        this.tokenProvider = tokenProvider;
+        this.userRepository = userRepository;
+        this.tokenLifetime = Duration.ofMillis(expirationMs);
+        this.tokens = CourseCatalogCache.monitor(meterRegistry, "jwt.tokens", Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(revalidateAfter))
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * @return the access token's principal, or null if it lacks the userId or
+     * role claims, was revoked or is scoped to a single resource
+     * @throws io.jsonwebtoken.JwtException if the token is not cached and fails verification
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public JwtPrincipal resolve(String token) {
+        return resolve(token, null);
+    }
+
+    /**
+     * Like {@link #resolve(String)}, but only accepts a token issued for
+     * exactly this scope.
+     */
+    public JwtPrincipal resolve(String token, String scope) {
+        String key = digest(token);
+        Verified verified = tokens.getIfPresent(key);
+        if (verified == null) {
+            JwtClaims claims = tokenProvider.parseToken(token);
+            if (claims.userId() == null || claims.role() == null) {
+                logger.error("JWT token without userId or role claims for user: {}", claims.userName());
+                return null;
+            }
+            // A deleted user's row is gone on every node, unlike the in-memory revocation
+            if (!userRepository.existsById(claims.userId())) {
+                logger.error("JWT token for deleted user: {}", claims.userName());
+                return null;
+            }
+            verified = new Verified(new JwtPrincipal(claims.userId(), claims.userName(), claims.role()),
+                    claims.issuedAt(), claims.expiresAt(), claims.scope());
+            // Checked again below, so a revocation racing this insert still applies
+            tokens.put(key, verified);
+        }
+
+        if (!Objects.equals(scope, verified.scope())) {
+            logger.error("JWT token with scope {} used where {} is required", verified.scope(), scope);
+            return null;
+        }
+        if (isRevoked(verified)) {
+            tokens.invalidate(key);
+            logger.error("Revoked JWT token for user: {}", verified.principal().userName());
+            return null;
+        }
+        return verified.principal();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        revokeUser(event.userId());
+    }
+
+    /**
+     * Rejects every token issued to the user so far on this node. Tokens are
+     * issued with second precision, so one issued in the same second as the
+     * revocation is rejected too.
+     */
+    public void revokeUser(Long userId) {
+        Instant now = Instant.now();
+        revocations.put(userId, now);
+        revocations.values().removeIf(revokedAt -> revokedAt.isBefore(now.minus(tokenLifetime)));
+        tokens.asMap().values().removeIf(verified -> userId.equals(verified.principal().userId()));
+        logger.info("Revoked tokens of user {}", userId);
+    }
+
+    private boolean isRevoked(Verified verified) {
+        Instant revokedAt = revocations.get(verified.principal().userId());
+        return revokedAt != null && (verified.issuedAt() == null
+                || !verified.issuedAt().isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS)));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
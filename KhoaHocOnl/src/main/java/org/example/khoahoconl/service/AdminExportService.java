@@ -0,0 +1,102 @@
+package org.example.khoahoconl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.entity.User;
+import org.example.khoahoconl.mapper.EnrollmentMapper;
+import org.example.khoahoconl.mapper.UserMapper;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes admin listings as a JSON array straight from a database cursor. Rows
+ * are mapped and written one at a time and the persistence context is cleared
+ * every {@code admin.export.clear-interval} rows, so heap use does not grow
+ * with the size of the table. The default fetch size of {@code Integer.MIN_VALUE}
+ * is what makes MySQL Connector/J stream rows instead of buffering the result;
+ * other drivers need a positive {@code admin.export.fetch-size}.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class AdminExportService {
+
+    static final String USERS_QUERY = "select u from User u order by u.userId";
+    // To-one associations are fetched in the same row so streaming never falls back to per-row selects
+    static final String ENROLLMENTS_QUERY = "select e from CourseEnrollment e join fetch e.user "
+            + "join fetch e.course c left join fetch c.createBy order by e.courseEnrollmentId";
+
+    UserMapper userMapper;
+    EnrollmentMapper enrollmentMapper;
+    ObjectMapper objectMapper;
+    EntityManager entityManager;
+    TransactionTemplate readOnlyTransaction;
+    int fetchSize;
+    int clearInterval;
+
+    public AdminExportService(UserMapper userMapper, EnrollmentMapper enrollmentMapper, ObjectMapper objectMapper,
+            EntityManager entityManager, PlatformTransactionManager transactionManager,
+            @Value("${admin.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize,
+            @Value("${admin.export.clear-interval:500}") int clearInterval) {
+        this.userMapper = userMapper;
+        this.enrollmentMapper = enrollmentMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.clearInterval = Math.max(1, clearInterval);
+    }
+
+    public void writeUsers(OutputStream out) {
+        writeArray(out, User.class, USERS_QUERY, userMapper::toUserResponse);
+    }
+
+    public void writeEnrollments(OutputStream out) {
+        writeArray(out, CourseEnrollment.class, ENROLLMENTS_QUERY, enrollmentMapper::toResponse);
+    }
+
+    // The stream holds an open cursor, so it must be consumed inside the transaction that opened it
+    private <T> void writeArray(OutputStream out, Class<T> type, String jpql, Function<T, ?> mapper) {
+        readOnlyTransaction.executeWithoutResult(tx -> {
+            long written = 0;
+            // A failure mid-stream must leave the array unterminated so the client cannot mistake it for a full export
+            try (Stream<T> stream = entityManager.createQuery(jpql, type)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream();
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartArray();
+                for (Iterator<T> it = stream.iterator(); it.hasNext(); ) {
+                    generator.writeObject(mapper.apply(it.next()));
+                    if (++written % clearInterval == 0) {
+                        entityManager.clear();
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                // Usually the client went away; rolling back the read-only transaction releases the cursor
+                throw new UncheckedIOException(e);
+            }
+            log.debug("Exported {} rows", written);
+        });
+    }
+}
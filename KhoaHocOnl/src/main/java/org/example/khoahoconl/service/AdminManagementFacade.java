@@ -6,19 +6,28 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.example.khoahoconl.dto.request.CourseCreationRequest;
 import org.example.khoahoconl.dto.request.CourseUpdateRequest;
+import org.example.khoahoconl.dto.request.EnrollmentQueryRequest;
+import org.example.khoahoconl.dto.response.BulkStatusUpdateResponse;
 import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.CursorPageResponse;
+import org.example.khoahoconl.dto.response.EnrollmentResponse;
 import org.example.khoahoconl.dto.response.UserResponse;
 import org.example.khoahoconl.entity.Course;
-import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.entity.User;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.example.khoahoconl.event.UserDeletedEvent;
 import org.example.khoahoconl.exception.AppException;
 import org.example.khoahoconl.exception.ErrorCode;
 import org.example.khoahoconl.mapper.CourseMapper;
 import org.example.khoahoconl.mapper.UserMapper;
 import org.example.khoahoconl.repository.CourseRepository;
 import org.example.khoahoconl.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,7 +44,10 @@ public class AdminManagementFacade {
     UserRepository userRepository;
     CourseMapper courseMapper;
     UserMapper userMapper;
+    CourseService courseService;
     EnrollmentService enrollmentService;
+    AdminExportService adminExportService;
+    ApplicationEventPublisher eventPublisher;
 
     // ========== User Management ==========
     public List<UserResponse> getAllUsers() {
@@ -44,13 +56,17 @@ public class AdminManagementFacade {
                 .collect(Collectors.toList());
     }
 
+    public void exportUsers(OutputStream out) {
+        adminExportService.writeUsers(out);
+    }
+
     @Transactional
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new AppException(ErrorCode.USER_NOT_FOUND);
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         log.info("Admin deleting user {}", userId);
-        userRepository.deleteById(userId);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
     }
 
     // ========== Course Management ==========
@@ -62,19 +78,15 @@ public class AdminManagementFacade {
         Course savedCourse = courseRepository.save(course);
 
         log.info("Admin created course {}", savedCourse.getCourseId());
+        eventPublisher.publishEvent(CourseChangedEvent.created(savedCourse.getCourseId()));
         return courseMapper.toDTO(savedCourse);
     }
 
     @Transactional
     public CourseResponse updateCourse(Long courseId, CourseUpdateRequest request) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
-
-        courseMapper.updateCourse(course, request);
-        Course updatedCourse = courseRepository.save(course);
-
+        CourseResponse updatedCourse = courseService.updateCourse(courseId, request);
         log.info("Admin updated course {}", courseId);
-        return courseMapper.toDTO(updatedCourse);
+        return updatedCourse;
     }
 
     @Transactional
@@ -84,11 +96,16 @@ public class AdminManagementFacade {
         }
         log.info("Admin deleting course {}", courseId);
         courseRepository.deleteById(courseId);
+        eventPublisher.publishEvent(CourseChangedEvent.deleted(courseId));
     }
 
     // ========== Enrollment Management ==========
-    public List<CourseEnrollment> getAllEnrollments() {
-        return enrollmentService.getAllEnrollmentsForAdmin();
+    public CursorPageResponse<EnrollmentResponse> getEnrollments(EnrollmentQueryRequest request) {
+        return enrollmentService.queryEnrollments(request);
+    }
+
+    public void exportEnrollments(OutputStream out) {
+        adminExportService.writeEnrollments(out);
     }
 
     @Transactional
@@ -104,15 +121,15 @@ public class AdminManagementFacade {
     }
 
     @Transactional
-    public void batchApproveEnrollments(List<Long> enrollmentIds) {
+    public BulkStatusUpdateResponse batchApproveEnrollments(List<Long> enrollmentIds) {
         log.info("Admin batch approving {} enrollments", enrollmentIds.size());
-        enrollmentIds.forEach(enrollmentService::approveEnrollment);
+        return enrollmentService.bulkTransition(enrollmentIds, Status.PENDING, Status.APPROVED);
     }
 
     @Transactional
-    public void batchRejectEnrollments(List<Long> enrollmentIds) {
+    public BulkStatusUpdateResponse batchRejectEnrollments(List<Long> enrollmentIds) {
         log.info("Admin batch rejecting {} enrollments", enrollmentIds.size());
-        enrollmentIds.forEach(enrollmentService::rejectEnrollment);
+        return enrollmentService.bulkTransition(enrollmentIds, Status.PENDING, Status.REJECTED);
     }
 
     // ========== Validation ==========
@@ -0,0 +1,62 @@
+package org.example.khoahoconl.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.enums.CatalogSort;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset position in the course catalog: the sort key and course id of the last
+ * row returned. Encoded as an opaque URL-safe token so clients never depend on
+ * its layout.
+ */
+public record CatalogCursor(CatalogSort sort, Sort.Direction direction, Comparable<?> lastValue, long lastId) {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "~";
+
+    public static CatalogCursor after(Course course, CatalogSort sort, Sort.Direction direction) {
+        Comparable<?> value = switch (sort) {
+            case ID -> null;
+            case PRICE -> course.getPrice();
+            case CREATED_DATE -> course.getCreatedDate();
+        };
+        return new CatalogCursor(sort, direction, value, course.getCourseId());
+    }
+
+    public String encode() {
+        String value = lastValue == null ? NULL_VALUE : lastValue.toString();
+        if (lastValue instanceof BigDecimal decimal) {
+            value = decimal.toPlainString();
+        }
+        String raw = sort.name() + SEPARATOR + direction.name() + SEPARATOR + value + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CatalogCursor decode(String token, CatalogSort sort, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4
+                    || CatalogSort.valueOf(parts[0]) != sort
+                    || Sort.Direction.valueOf(parts[1]) != direction) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            Comparable<?> value = NULL_VALUE.equals(parts[2]) ? null : switch (sort) {
+                case ID -> null;
+                case PRICE -> new BigDecimal(parts[2]);
+                case CREATED_DATE -> LocalDateTime.parse(parts[2]);
+            };
+            return new CatalogCursor(sort, direction, value, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
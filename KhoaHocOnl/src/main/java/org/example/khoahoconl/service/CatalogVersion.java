@@ -0,0 +1,37 @@
+package org.example.khoahoconl.service;
+
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide version and last-modified time, bumped after every committed
+ * course change. Both start at boot time so a restarted node never claims a
+ * client's copy is current when it cannot know. Runs after the cache
+ * invalidation listeners so a new version never fronts stale cached content.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public long current() {
+        return version.get();
+    }
+
+    public Instant lastModified() {
+        return lastModified;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        version.incrementAndGet();
+        lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+}
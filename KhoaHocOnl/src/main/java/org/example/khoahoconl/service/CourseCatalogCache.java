@@ -0,0 +1,90 @@
+package org.example.khoahoconl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.EnhancedCourseResponse;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of catalog DTOs. Entries expire after a TTL and are
+ * evicted as soon as a {@link CourseChangedEvent} commits. Hit ratio, evictions
+ * and load latency are published to Micrometer under the {@code catalog.*} cache names.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class CourseCatalogCache {
+
+    static final String ALL_COURSES_KEY = "all";
+
+    Cache<Long, CourseResponse> courses;
+    Cache<Long, EnhancedCourseResponse> courseDetails;
+    Cache<String, List<CourseResponse>> courseLists;
+
+    public CourseCatalogCache(MeterRegistry meterRegistry,
+            @Value("${catalog.cache.max-size:10000}") long maxSize,
+            @Value("${catalog.cache.ttl:10m}") Duration ttl) {
+        this.courses = monitor(meterRegistry, "catalog.courses", build(maxSize, ttl));
+        this.courseDetails = monitor(meterRegistry, "catalog.course-details", build(maxSize, ttl));
+        this.courseLists = monitor(meterRegistry, "catalog.course-lists", build(16, ttl));
+    }
+
+    public CourseResponse getCourse(Long courseId, Function<Long, CourseResponse> loader) {
+        return courses.get(courseId, loader);
+    }
+
+    public EnhancedCourseResponse getCourseDetails(Long courseId, Function<Long, EnhancedCourseResponse> loader) {
+        return courseDetails.get(courseId, loader);
+    }
+
+    public List<CourseResponse> getAllCourses(Supplier<List<CourseResponse>> loader) {
+        return courseLists.get(ALL_COURSES_KEY, k -> List.copyOf(loader.get()));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        Long courseId = event.courseId();
+        courses.invalidate(courseId);
+        courseDetails.invalidate(courseId);
+        // Details of other courses embed this course's title as a prerequisite
+        courseDetails.asMap().values().removeIf(details -> details.getPrerequisites() != null
+                && details.getPrerequisites().stream().anyMatch(p -> courseId.equals(p.getCourseId())));
+        courseLists.invalidateAll();
+        log.debug("Catalog cache invalidated for course {} ({})", courseId, event.type());
+    }
+
+    private static <K, V> Cache<K, V> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public static <K, V> Cache<K, V> monitor(MeterRegistry registry, String name, Cache<K, V> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .register(registry);
+        return cache;
+    }
+}
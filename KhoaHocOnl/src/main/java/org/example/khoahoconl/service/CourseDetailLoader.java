@@ -0,0 +1,108 @@
+package org.example.khoahoconl.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.dto.response.EnhancedCourseResponse;
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.entity.CourseCurriculum;
+import org.example.khoahoconl.entity.CurriculumLesson;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.mapper.UserMapper;
+import org.example.khoahoconl.repository.CourseCurriculumRepository;
+import org.example.khoahoconl.repository.CourseLearningObjectiveRepository;
+import org.example.khoahoconl.repository.CoursePrerequisiteRepository;
+import org.example.khoahoconl.repository.CourseRepository;
+import org.example.khoahoconl.repository.CurriculumLessonRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the full course detail graph in a fixed number of queries: course with
+ * creator, objectives, chapters, every lesson of the course, and prerequisites
+ * with their titles. The count does not grow with the number of chapters.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CourseDetailLoader {
+
+    CourseRepository courseRepository;
+    CourseLearningObjectiveRepository learningObjectiveRepository;
+    CourseCurriculumRepository curriculumRepository;
+    CurriculumLessonRepository curriculumLessonRepository;
+    CoursePrerequisiteRepository prerequisiteRepository;
+    UserMapper userMapper;
+
+    // Read-only transaction keeps the course and chapters in the persistence
+    // context, so the eager back-references on chapters and lessons resolve
+    // without extra selects
+    @Transactional(readOnly = true)
+    public EnhancedCourseResponse load(Long courseId) {
+        Course course = courseRepository.findWithCreatorByCourseId(courseId)
+                .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
+
+        List<String> objectives = learningObjectiveRepository.findObjectiveTextsByCourseId(courseId);
+
+        List<CourseCurriculum> chapters = curriculumRepository.findByCourse_CourseIdOrderByDisplayOrder(courseId);
+        Map<Long, List<EnhancedCourseResponse.LessonInfo>> lessonsByChapter = new LinkedHashMap<>();
+        for (CurriculumLesson l : curriculumLessonRepository.findAllByCourseId(courseId)) {
+            lessonsByChapter.computeIfAbsent(l.getCurriculum().getId(), k -> new ArrayList<>())
+                    .add(EnhancedCourseResponse.LessonInfo.builder()
+                            .lessonId(l.getId())
+                            .lessonTitle(l.getLessonTitle())
+                            .lessonDescription(l.getLessonDescription())
+                            .videoUrl(l.getVideoUrl())
+                            .displayOrder(l.getDisplayOrder())
+                            .estimatedDurationMinutes(l.getEstimatedDurationMinutes())
+                            .isFreePreview(l.getIsFreePreview())
+                            .build());
+        }
+
+        List<EnhancedCourseResponse.CurriculumItem> curriculum = chapters.stream()
+                .map(c -> EnhancedCourseResponse.CurriculumItem.builder()
+                        .chapterTitle(c.getChapterTitle())
+                        .chapterDescription(c.getChapterDescription())
+                        .estimatedDurationMinutes(c.getEstimatedDurationMinutes())
+                        .displayOrder(c.getDisplayOrder())
+                        .lessons(lessonsByChapter.getOrDefault(c.getId(), List.of()))
+                        .build())
+                .collect(Collectors.toList());
+
+        List<EnhancedCourseResponse.PrerequisiteInfo> prerequisites = prerequisiteRepository
+                .findWithPrerequisiteCourseByCourseId(courseId)
+                .stream()
+                .map(p -> EnhancedCourseResponse.PrerequisiteInfo.builder()
+                        .courseId(p.getPrerequisiteCourse().getCourseId())
+                        .courseTitle(p.getPrerequisiteCourse().getCourseTitle())
+                        .type(p.getType().name())
+                        .build())
+                .collect(Collectors.toList());
+
+        int totalMinutes = curriculum.stream()
+                .mapToInt(c -> c.getEstimatedDurationMinutes() != null ? c.getEstimatedDurationMinutes() : 0)
+                .sum();
+        int totalHours = (int) Math.ceil(totalMinutes / 60.0);
+
+        return EnhancedCourseResponse.builder()
+                .courseId(course.getCourseId())
+                .courseTitle(course.getCourseTitle())
+                .description(course.getDescription())
+                .urlVideo(course.getUrlVideo())
+                .price(course.getPrice())
+                .createBy(userMapper.toUserResponse(course.getCreateBy()))
+                .updatedDate(course.getUpdatedDate())
+                .learningObjectives(objectives)
+                .curriculum(curriculum)
+                .prerequisites(prerequisites)
+                .estimatedDurationHours(totalHours)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.khoahoconl.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.response.EnhancedCourseResponse;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the course detail response as already-serialized JSON (plain and
+ * gzipped) so repeated reads are a byte copy. A snapshot is dropped when its
+ * course, or a course it lists as a prerequisite, changes and is rebuilt on
+ * the next read. Snapshots also expire after the catalog TTL, and eviction
+ * runs just after {@link CourseCatalogCache} so a rebuild never reads a stale
+ * cached DTO.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class CourseDetailSnapshotStore {
+
+    CourseService courseService;
+    ObjectMapper objectMapper;
+    Cache<Long, Snapshot> snapshots;
+    AtomicLong versions = new AtomicLong();
+
+    public CourseDetailSnapshotStore(CourseService courseService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${catalog.snapshot.max-bytes:67108864}") long maxBytes,
+            @Value("${catalog.cache.ttl:10m}") Duration ttl) {
+        this.courseService = courseService;
+        this.objectMapper = objectMapper;
+        this.snapshots = CourseCatalogCache.monitor(meterRegistry, "catalog.course-detail-snapshots",
+                Caffeine.newBuilder()
+                        .maximumWeight(maxBytes)
+                        .<Long, Snapshot>weigher((id, snapshot) -> snapshot.json().length + snapshot.gzip().length)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build());
+    }
+
+    public Snapshot get(Long courseId) {
+        return snapshots.get(courseId, this::build);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        Long courseId = event.courseId();
+        snapshots.invalidate(courseId);
+        snapshots.asMap().values().removeIf(s -> s.prerequisiteIds().contains(courseId));
+    }
+
+    private Snapshot build(Long courseId) {
+        EnhancedCourseResponse details = courseService.getEnhancedCourseDetails(courseId);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(details);
+            Set<Long> prerequisiteIds = details.getPrerequisites() == null ? Set.of()
+                    : details.getPrerequisites().stream()
+                            .map(EnhancedCourseResponse.PrerequisiteInfo::getCourseId)
+                            .collect(Collectors.toUnmodifiableSet());
+            long lastModified = details.getUpdatedDate() == null ? -1
+                    : details.getUpdatedDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            Snapshot snapshot = new Snapshot(versions.incrementAndGet(), json, gzip(json), digest(json),
+                    lastModified, prerequisiteIds);
+            log.debug("Built detail snapshot v{} for course {} ({} bytes)", snapshot.version(), courseId, json.length);
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize details of course " + courseId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Immutable serialized representation of one course's details. The strong
+     * ETag is derived from the JSON content, with a distinct tag for the gzip
+     * encoding; lastModified is -1 when the course has no update timestamp.
+     */
+    public record Snapshot(long version, byte[] json, byte[] gzip, String contentHash, long lastModified,
+            Set<Long> prerequisiteIds) {
+
+        public String etag(boolean gzipped) {
+            return "\"" + contentHash + (gzipped ? "-gzip" : "") + "\"";
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.khoahoconl.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.response.CatalogFacetsResponse;
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.enums.PriceBand;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.example.khoahoconl.repository.CourseRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Category, level and price-band counts for the catalog filter sidebar, held
+ * in memory. Counts move incrementally as courses are created, edited, deleted
+ * or imported, and are periodically reconciled against the database to heal
+ * any drift. Reads cost O(number of facet values).
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class CourseFacetService {
+
+    final CourseRepository courseRepository;
+
+    final Object lock = new Object();
+    Map<Long, FacetKey> keysByCourse = new HashMap<>();
+    Map<String, Long> categoryCounts = new HashMap<>();
+    Map<String, Long> levelCounts = new HashMap<>();
+    Map<PriceBand, Long> priceBandCounts = new EnumMap<>(PriceBand.class);
+    // Non-null while a reconciliation is loading; changes seen meanwhile are replayed after the swap
+    Map<Long, FacetKey> changedDuringReconcile;
+
+    public CatalogFacetsResponse getFacets() {
+        synchronized (lock) {
+            return CatalogFacetsResponse.builder()
+                    .categories(toCounts(categoryCounts))
+                    .levels(toCounts(levelCounts))
+                    .priceBands(priceBandCounts.entrySet().stream()
+                            .filter(e -> e.getValue() > 0)
+                            .map(e -> new CatalogFacetsResponse.FacetCount(e.getKey().name(), e.getValue()))
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        FacetKey key = event.type() == CourseChangedEvent.ChangeType.DELETED ? null
+                : courseRepository.findById(event.courseId()).map(FacetKey::of).orElse(null);
+        synchronized (lock) {
+            apply(event.courseId(), key);
+            if (changedDuringReconcile != null) {
+                changedDuringReconcile.put(event.courseId(), key);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.facets.reconcile-interval:PT10M}",
+            fixedDelayString = "${catalog.facets.reconcile-interval:PT10M}")
+    public void reconcile() {
+        synchronized (lock) {
+            changedDuringReconcile = new HashMap<>();
+        }
+        List<Object[]> rows = courseRepository.findAllFacetRows();
+
+        Map<Long, FacetKey> keys = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            keys.put((Long) row[0], new FacetKey((String) row[1], (String) row[2], PriceBand.of((BigDecimal) row[3])));
+        }
+
+        synchronized (lock) {
+            Map<Long, FacetKey> replay = changedDuringReconcile;
+            changedDuringReconcile = null;
+            int drift = countDrift(keys);
+            keysByCourse = new HashMap<>();
+            categoryCounts = new HashMap<>();
+            levelCounts = new HashMap<>();
+            priceBandCounts = new EnumMap<>(PriceBand.class);
+            keys.forEach(this::apply);
+            replay.forEach(this::apply);
+            if (drift > 0) {
+                log.warn("Facet reconciliation corrected {} drifted courses", drift);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void apply(Long courseId, FacetKey next) {
+        FacetKey previous = next == null ? keysByCourse.remove(courseId) : keysByCourse.put(courseId, next);
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        if (next != null) {
+            adjust(next, 1);
+        }
+    }
+
+    private void adjust(FacetKey key, long delta) {
+        if (key.category() != null) {
+            categoryCounts.merge(key.category(), delta, Long::sum);
+        }
+        if (key.level() != null) {
+            levelCounts.merge(key.level(), delta, Long::sum);
+        }
+        priceBandCounts.merge(key.priceBand(), delta, Long::sum);
+    }
+
+    private int countDrift(Map<Long, FacetKey> actual) {
+        if (keysByCourse.isEmpty()) {
+            return 0;
+        }
+        int drift = 0;
+        for (Map.Entry<Long, FacetKey> e : actual.entrySet()) {
+            if (!e.getValue().equals(keysByCourse.get(e.getKey()))) {
+                drift++;
+            }
+        }
+        for (Long courseId : keysByCourse.keySet()) {
+            if (!actual.containsKey(courseId)) {
+                drift++;
+            }
+        }
+        return drift;
+    }
+
+    private static List<CatalogFacetsResponse.FacetCount> toCounts(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> new CatalogFacetsResponse.FacetCount(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    record FacetKey(String category, String level, PriceBand priceBand) {
+
+        static FacetKey of(Course course) {
+            return new FacetKey(course.getCategory(), course.getLevel(), PriceBand.of(course.getPrice()));
+        }
+    }
+}
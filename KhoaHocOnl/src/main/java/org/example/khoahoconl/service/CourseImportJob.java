@@ -0,0 +1,146 @@
+package org.example.khoahoconl.service;
+
+import lombok.Getter;
+import org.example.khoahoconl.dto.response.CourseImportJobResponse;
+import org.example.khoahoconl.dto.response.CourseImportResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of one background course import. Workers add each committed chunk
+ * and each failed course; status requests read a consistent snapshot, as every
+ * access goes through the job's lock.
+ */
+public class CourseImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    // Further errors are only counted
+    static final int MAX_ERRORS = 100;
+
+    @Getter
+    final String jobId;
+    final int coursesTotal;
+    final Instant submittedAt = Instant.now();
+    final CourseImportResponse totals = new CourseImportResponse();
+    final List<CourseImportJobResponse.CourseError> errors = new ArrayList<>();
+    Status status = Status.QUEUED;
+    Instant startedAt;
+    Instant finishedAt;
+    String failure;
+    int coursesProcessed;
+    int coursesFailed;
+
+    CourseImportJob(String jobId, int coursesTotal) {
+        this.jobId = jobId;
+        this.coursesTotal = coursesTotal;
+    }
+
+    synchronized void start() {
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+    }
+
+    synchronized void complete() {
+        status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    synchronized void fail(String reason) {
+        status = Status.FAILED;
+        failure = reason;
+        finishedAt = Instant.now();
+    }
+
+    synchronized boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized void addChunk(CourseImportResponse chunk, int courses) {
+        add(totals, chunk);
+        coursesProcessed += courses;
+    }
+
+    synchronized void addPrerequisites(CourseImportResponse linked) {
+        add(totals, linked);
+        totals.setPrerequisiteCycles(linked.getPrerequisiteCycles());
+    }
+
+    /**
+     * @param position index of the course in the payload, if it could not be read
+     */
+    synchronized void addError(Integer position, Long courseId, String message) {
+        coursesProcessed++;
+        coursesFailed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new CourseImportJobResponse.CourseError(position, courseId, message));
+        }
+    }
+
+    synchronized CourseImportJobResponse toResponse() {
+        Instant now = Instant.now();
+        CourseImportResponse result = new CourseImportResponse();
+        add(result, totals);
+        result.setPrerequisiteCycles(totals.getPrerequisiteCycles());
+
+        Double coursesPerSecond = null;
+        Long etaSeconds = null;
+        if (startedAt != null) {
+            long elapsedMillis = Duration.between(startedAt, finishedAt != null ? finishedAt : now).toMillis();
+            result.setElapsedMillis(elapsedMillis);
+            if (coursesProcessed > 0 && elapsedMillis > 0) {
+                coursesPerSecond = coursesProcessed * 1000.0 / elapsedMillis;
+                etaSeconds = finishedAt != null ? 0L
+                        : (long) Math.ceil((coursesTotal - coursesProcessed) / coursesPerSecond);
+            }
+        }
+
+        return CourseImportJobResponse.builder()
+                .jobId(jobId)
+                .status(status.name())
+                .coursesTotal(coursesTotal)
+                .coursesProcessed(coursesProcessed)
+                .coursesFailed(coursesFailed)
+                .percentComplete(coursesTotal == 0 ? 100.0 : coursesProcessed * 100.0 / coursesTotal)
+                .coursesPerSecond(coursesPerSecond)
+                .etaSeconds(etaSeconds)
+                .submittedAt(toLocal(submittedAt))
+                .startedAt(toLocal(startedAt))
+                .finishedAt(toLocal(finishedAt))
+                .failure(failure)
+                .errors(List.copyOf(errors))
+                .result(result)
+                .build();
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static void add(CourseImportResponse totals, CourseImportResponse part) {
+        totals.setCoursesCreated(totals.getCoursesCreated() + part.getCoursesCreated());
+        totals.setCoursesUpdated(totals.getCoursesUpdated() + part.getCoursesUpdated());
+        totals.setCoursesUnchanged(totals.getCoursesUnchanged() + part.getCoursesUnchanged());
+        totals.setLearningObjectives(totals.getLearningObjectives() + part.getLearningObjectives());
+        totals.setChapters(totals.getChapters() + part.getChapters());
+        totals.setLessons(totals.getLessons() + part.getLessons());
+        totals.setRowsUpdated(totals.getRowsUpdated() + part.getRowsUpdated());
+        totals.setRowsDeleted(totals.getRowsDeleted() + part.getRowsDeleted());
+        totals.setChaptersUnchanged(totals.getChaptersUnchanged() + part.getChaptersUnchanged());
+        totals.setPrerequisites(totals.getPrerequisites() + part.getPrerequisites());
+        totals.setMissingPrerequisites(totals.getMissingPrerequisites() + part.getMissingPrerequisites());
+        totals.setCyclicPrerequisites(totals.getCyclicPrerequisites() + part.getCyclicPrerequisites());
+        totals.setChunks(totals.getChunks() + part.getChunks());
+    }
+}
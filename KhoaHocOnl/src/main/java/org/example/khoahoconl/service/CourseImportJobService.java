@@ -0,0 +1,111 @@
+package org.example.khoahoconl.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.response.CourseImportJobResponse;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs course imports in the background. The payload is spooled to a temporary
+ * file and checked before the job is accepted, so a malformed payload is still
+ * rejected with the request. Jobs run one at a time in submission order, as
+ * concurrent imports would race on the same courses; finished jobs stay
+ * queryable for {@code admin.import.job-retention}.
+ */
+@Service
+@Slf4j
+public class CourseImportJobService {
+
+    private final CourseImportService courseImportService;
+    private final Duration retention;
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("course-import-job-"));
+    private final ConcurrentHashMap<String, CourseImportJob> jobs = new ConcurrentHashMap<>();
+
+    public CourseImportJobService(CourseImportService courseImportService,
+            @Value("${admin.import.job-retention:PT1H}") Duration retention) {
+        this.courseImportService = courseImportService;
+        this.retention = retention;
+    }
+
+    public CourseImportJobResponse submit(InputStream payload) {
+        Path file;
+        try {
+            file = Files.createTempFile("course-import-", ".json");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CourseImportJob job;
+        try {
+            Files.copy(payload, file, StandardCopyOption.REPLACE_EXISTING);
+            job = new CourseImportJob(UUID.randomUUID().toString(), courseImportService.countCourses(file));
+        } catch (IOException e) {
+            delete(file);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            delete(file);
+            throw e;
+        }
+
+        evictExpired();
+        jobs.put(job.getJobId(), job);
+        jobRunner.execute(() -> run(job, file));
+        log.info("Import job {} queued with {} courses", job.getJobId(), job.coursesTotal);
+        return job.toResponse();
+    }
+
+    public CourseImportJobResponse getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .map(CourseImportJob::toResponse)
+                .orElseThrow(() -> new AppException(ErrorCode.IMPORT_JOB_NOT_FOUND));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobRunner.shutdownNow();
+    }
+
+    private void run(CourseImportJob job, Path file) {
+        job.start();
+        try {
+            courseImportService.importCourses(file, job);
+            job.complete();
+        } catch (RuntimeException e) {
+            log.error("Import job {} failed", job.getJobId(), e);
+            job.fail(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        } finally {
+            delete(file);
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import payload {}", file, e);
+        }
+    }
+}
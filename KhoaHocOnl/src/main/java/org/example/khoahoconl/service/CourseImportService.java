@@ -1,140 +1,630 @@
 package org.example.khoahoconl.service;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.example.khoahoconl.dto.request.CourseImportRequest;
+import org.example.khoahoconl.dto.response.CourseImportResponse;
 import org.example.khoahoconl.entity.*;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
 import org.example.khoahoconl.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * Streaming course importer. The JSON array is parsed one course at a time and
+ * written in chunks of {@code admin.import.chunk-size} courses, each in its own
+ * transaction. Each course's payload is fingerprinted and compared with the
+ * hash stored on the course: unchanged courses are skipped, changed ones are
+ * upserted with one JDBC batch, and their children are diffed against the
+ * stored rows so only differing rows are inserted, updated or deleted, as
+ * Hibernate batches. Chunks are written in parallel by a pool of
+ * {@code admin.import.workers} threads. Heap use is bounded by the chunks in
+ * flight plus the imported and prerequisite ids, which are linked in a second
+ * pass once every course exists. A course with prerequisites gets its hash in
+ * that pass, together with its links, so a course is never skipped while its
+ * links are missing.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CourseImportService {
 
+    static final String UPSERT_COURSE_SQL = "insert into course "
+            + "(course_id, course_title, description, url_video, price, create_by, created_date, updated_date, import_hash) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "on duplicate key update course_title = values(course_title), description = values(description), "
+            + "url_video = values(url_video), price = values(price), create_by = values(create_by), "
+            + "updated_date = values(updated_date), import_hash = values(import_hash)";
+    static final String SET_IMPORT_HASH_SQL = "update course set import_hash = ? where course_id = ?";
+
+    /**
+     * Prerequisites requested for an imported course, and the fingerprint to
+     * store once they are all linked.
+     */
+    record PendingLinks(List<Long> prerequisiteIds, String hash) {
+    }
+
     private final CourseRepository courseRepository;
     private final CourseLearningObjectiveRepository learningObjectiveRepository;
     private final CourseCurriculumRepository curriculumRepository;
     private final CurriculumLessonRepository curriculumLessonRepository;
     private final CoursePrerequisiteRepository prerequisiteRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int workerCount;
+    private final ExecutorService workers;
 
-    @Transactional
-    public void importCourses(List<CourseImportRequest> requests) {
+    public CourseImportService(CourseRepository courseRepository,
+            CourseLearningObjectiveRepository learningObjectiveRepository,
+            CourseCurriculumRepository curriculumRepository,
+            CurriculumLessonRepository curriculumLessonRepository,
+            CoursePrerequisiteRepository prerequisiteRepository,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager,
+            @Value("${admin.import.chunk-size:200}") int chunkSize,
+            @Value("${admin.import.workers:4}") int workerCount) {
+        this.courseRepository = courseRepository;
+        this.learningObjectiveRepository = learningObjectiveRepository;
+        this.curriculumRepository = curriculumRepository;
+        this.curriculumLessonRepository = curriculumLessonRepository;
+        this.prerequisiteRepository = prerequisiteRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.workerCount = Math.max(1, workerCount);
+        this.workers = Executors.newFixedThreadPool(this.workerCount, new CustomizableThreadFactory("course-import-worker-"));
+    }
+
+    /**
+     * Checks that the payload is a JSON array of objects without binding it.
+     *
+     * @return the number of courses in the array
+     */
+    public int countCourses(Path payload) {
+        try (InputStream in = Files.newInputStream(payload); JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new AppException(ErrorCode.INVALID_IMPORT);
+            }
+            int courses = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                courses++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY || parser.nextToken() != null) {
+                throw new AppException(ErrorCode.INVALID_IMPORT);
+            }
+            return courses;
+        } catch (IOException e) {
+            log.warn("Course import payload rejected: {}", e.getMessage());
+            throw new AppException(ErrorCode.INVALID_IMPORT);
+        }
+    }
+
+    /**
+     * Imports a JSON array of {@link CourseImportRequest} already checked by
+     * {@link #countCourses}. Chunks are written by the worker pool, at most two
+     * per worker in flight; a chunk that fails is retried course by course, so
+     * one bad course is reported on the job and the rest still commit.
+     */
+    public void importCourses(Path payload, CourseImportJob job) {
+        long started = System.nanoTime();
         // Get default instructor
-        User instructor = userRepository.findByUserName("admin")
+        Long instructorId = userRepository.findByUserName("admin")
+                .map(User::getUserId)
                 .orElseThrow(() -> new RuntimeException("Admin user not found"));
 
-        for (CourseImportRequest request : requests) {
-            importSingleCourse(request, instructor);
+        Map<Long, PendingLinks> prerequisites = new ConcurrentHashMap<>();
+        Set<Long> imported = new HashSet<>();
+        Deque<Future<?>> inFlight = new ArrayDeque<>();
+        try (InputStream in = Files.newInputStream(payload); JsonParser parser = objectMapper.createParser(in)) {
+            parser.nextToken();
+            List<CourseImportRequest> chunk = new ArrayList<>(chunkSize);
+            for (int position = 0; parser.nextToken() == JsonToken.START_OBJECT; position++) {
+                JsonNode node = objectMapper.readTree(parser);
+                CourseImportRequest request;
+                try {
+                    request = objectMapper.treeToValue(node, CourseImportRequest.class);
+                } catch (JsonProcessingException e) {
+                    job.addError(position, null, e.getOriginalMessage());
+                    continue;
+                }
+                if (request.getCourseId() == null) {
+                    job.addError(position, null, "Missing course id");
+                    continue;
+                }
+
+                // Earlier writes of a repeated course land first, so its children are replaced rather than doubled
+                boolean repeated = !imported.add(request.getCourseId());
+                if (chunk.size() == chunkSize || (repeated && !chunk.isEmpty())) {
+                    dispatch(chunk, instructorId, job, prerequisites, inFlight);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+                if (repeated) {
+                    awaitAll(inFlight);
+                }
+                chunk.add(request);
+            }
+            if (!chunk.isEmpty()) {
+                dispatch(chunk, instructorId, job, prerequisites, inFlight);
+            }
+            awaitAll(inFlight);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Nothing left writing if the job fails part way
+            inFlight.forEach(future -> future.cancel(true));
         }
+
+        CourseImportResponse linked = new CourseImportResponse();
+        writePrerequisites(prerequisites, imported, linked);
+        job.addPrerequisites(linked);
+        log.info("Import job {} finished in {} ms", job.getJobId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void dispatch(List<CourseImportRequest> chunk, Long instructorId, CourseImportJob job,
+            Map<Long, PendingLinks> prerequisites, Deque<Future<?>> inFlight) {
+        // Bounds the parsed courses held in memory while the workers catch up
+        while (inFlight.size() >= 2 * workerCount) {
+            await(inFlight.poll());
+        }
+        inFlight.add(workers.submit(() -> writeIsolated(chunk, instructorId, job, prerequisites)));
+    }
+
+    private void writeIsolated(List<CourseImportRequest> chunk, Long instructorId, CourseImportJob job,
+            Map<Long, PendingLinks> prerequisites) {
+        CourseImportResponse result = new CourseImportResponse();
+        Map<Long, PendingLinks> linked = new LinkedHashMap<>();
+        try {
+            writeChunk(chunk, instructorId, result, linked);
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                Long courseId = chunk.get(0).getCourseId();
+                log.warn("Import job {} failed on course {}", job.getJobId(), courseId, e);
+                job.addError(null, courseId, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            log.warn("Import job {} chunk of {} courses failed; retrying course by course", job.getJobId(), chunk.size());
+            chunk.forEach(request -> writeIsolated(List.of(request), instructorId, job, prerequisites));
+            return;
+        }
+        // No prerequisites means the course's old ones stay removed and its hash is already stored
+        linked.forEach((courseId, links) -> {
+            if (links.prerequisiteIds().isEmpty()) {
+                prerequisites.remove(courseId);
+            } else {
+                prerequisites.put(courseId, links);
+            }
+        });
+        job.addChunk(result, chunk.size());
+    }
+
+    private static void awaitAll(Deque<Future<?>> inFlight) {
+        while (!inFlight.isEmpty()) {
+            await(inFlight.poll());
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void writeChunk(List<CourseImportRequest> chunk, Long instructorId, CourseImportResponse result,
+            Map<Long, PendingLinks> prerequisites) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            List<Long> courseIds = chunk.stream().map(CourseImportRequest::getCourseId).toList();
+            Map<Long, String> storedHashes = new HashMap<>();
+            for (Object[] row : courseRepository.findImportHashes(courseIds)) {
+                storedHashes.put((Long) row[0], (String) row[1]);
+            }
+
+            // A course whose fingerprint matches the stored one is not touched at all
+            List<CourseImportRequest> changed = new ArrayList<>(chunk.size());
+            Map<Long, String> hashes = new HashMap<>();
+            for (CourseImportRequest request : chunk) {
+                String hash = fingerprint(request);
+                if (hash.equals(storedHashes.get(request.getCourseId()))) {
+                    result.setCoursesUnchanged(result.getCoursesUnchanged() + 1);
+                } else {
+                    changed.add(request);
+                    hashes.put(request.getCourseId(), hash);
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPSERT_COURSE_SQL, changed, changed.size(), (ps, request) -> {
+                ps.setLong(1, request.getCourseId());
+                ps.setString(2, request.getCourseTitle());
+                ps.setString(3, request.getDescription());
+                ps.setString(4, request.getUrlVideo());
+                ps.setBigDecimal(5, request.getPrice());
+                ps.setObject(6, instructorId, Types.BIGINT);
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+                // Stored by the second pass once the course's prerequisites are linked
+                ps.setString(9, hasPrerequisites(request) ? null : hashes.get(request.getCourseId()));
+            });
+
+            Set<Long> existing = changed.stream()
+                    .map(CourseImportRequest::getCourseId)
+                    .filter(storedHashes::containsKey)
+                    .collect(Collectors.toSet());
+            StoredChildren stored = existing.isEmpty() ? StoredChildren.NONE : loadChildren(existing);
+            if (!existing.isEmpty()) {
+                // Relinked in the second pass
+                prerequisiteRepository.deleteByCourseIds(existing);
+            }
+            for (CourseImportRequest request : changed) {
+                syncChildren(request, stored, result);
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            for (CourseImportRequest request : changed) {
+                Long courseId = request.getCourseId();
+                if (existing.contains(courseId)) {
+                    result.setCoursesUpdated(result.getCoursesUpdated() + 1);
+                    eventPublisher.publishEvent(CourseChangedEvent.updated(courseId));
+                } else {
+                    result.setCoursesCreated(result.getCoursesCreated() + 1);
+                    eventPublisher.publishEvent(CourseChangedEvent.created(courseId));
+                }
+                prerequisites.put(courseId, new PendingLinks(hasPrerequisites(request)
+                        ? List.copyOf(request.getPrerequisiteIds()) : List.of(), hashes.get(courseId)));
+            }
+        });
+        result.setChunks(result.getChunks() + 1);
     }
 
-    private void importSingleCourse(CourseImportRequest request, User instructor) {
-        // Create or update course
-        Course course = courseRepository.findById(request.getCourseId())
-                .orElse(new Course());
+    /**
+     * Children of the changed courses that already exist, grouped by course
+     * and, for lessons, by chapter; each list in display order.
+     */
+    record StoredChildren(Map<Long, List<CourseLearningObjective>> objectives,
+            Map<Long, List<CourseCurriculum>> chapters, Map<Long, List<CurriculumLesson>> lessons) {
 
-        course.setCourseId(request.getCourseId());
-        course.setCourseTitle(request.getCourseTitle());
-        course.setDescription(request.getDescription());
-        course.setUrlVideo(request.getUrlVideo());
-        course.setPrice(request.getPrice());
-        course.setCreateBy(instructor);
+        static final StoredChildren NONE = new StoredChildren(Map.of(), Map.of(), Map.of());
+    }
 
-        course = courseRepository.save(course);
+    private StoredChildren loadChildren(Set<Long> courseIds) {
+        return new StoredChildren(
+                learningObjectiveRepository.findByCourseIds(courseIds).stream()
+                        .collect(Collectors.groupingBy(o -> o.getCourse().getCourseId())),
+                curriculumRepository.findByCourseIds(courseIds).stream()
+                        .collect(Collectors.groupingBy(c -> c.getCourse().getCourseId())),
+                curriculumLessonRepository.findByCourseIds(courseIds).stream()
+                        .collect(Collectors.groupingBy(l -> l.getCurriculum().getId())));
+    }
 
-        // Delete existing related data
-        learningObjectiveRepository.deleteAll(
-                learningObjectiveRepository.findByCourse_CourseIdOrderByDisplayOrder(course.getCourseId())
-        );
-        curriculumRepository.deleteAll(
-                curriculumRepository.findByCourse_CourseIdOrderByDisplayOrder(course.getCourseId())
-        );
-        prerequisiteRepository.deleteAll(
-                prerequisiteRepository.findByCourse_CourseId(course.getCourseId())
-        );
+    /**
+     * Brings a course's stored objectives, chapters and lessons in line with
+     * the request, writing only the rows that differ. Chapters whose content
+     * fingerprint matches a stored chapter are kept as they are, even if they
+     * moved; the rest are paired with the remaining stored chapters in order
+     * and their lessons compared field by field.
+     */
+    private void syncChildren(CourseImportRequest request, StoredChildren stored, CourseImportResponse result) {
+        Long courseId = request.getCourseId();
+        Course course = entityManager.getReference(Course.class, courseId);
 
         // Import learning objectives
-        if (request.getLearningObjectives() != null) {
-            int order = 1;
-            for (String objective : request.getLearningObjectives()) {
+        List<String> objectives = request.getLearningObjectives() != null ? request.getLearningObjectives() : List.of();
+        List<CourseLearningObjective> storedObjectives = stored.objectives().getOrDefault(courseId, List.of());
+        for (int i = 0; i < Math.max(objectives.size(), storedObjectives.size()); i++) {
+            if (i >= objectives.size()) {
+                entityManager.remove(storedObjectives.get(i));
+                result.setRowsDeleted(result.getRowsDeleted() + 1);
+            } else if (i >= storedObjectives.size()) {
                 CourseLearningObjective obj = new CourseLearningObjective();
                 obj.setCourse(course);
-                obj.setObjective(objective);
-                obj.setDisplayOrder(order++);
-                learningObjectiveRepository.save(obj);
+                obj.setObjective(objectives.get(i));
+                obj.setDisplayOrder(i + 1);
+                entityManager.persist(obj);
+                result.setLearningObjectives(result.getLearningObjectives() + 1);
+            } else {
+                CourseLearningObjective obj = storedObjectives.get(i);
+                if (!Objects.equals(obj.getObjective(), objectives.get(i)) || !Objects.equals(obj.getDisplayOrder(), i + 1)) {
+                    obj.setObjective(objectives.get(i));
+                    obj.setDisplayOrder(i + 1);
+                    result.setRowsUpdated(result.getRowsUpdated() + 1);
+                }
             }
         }
 
         // Import curriculum with lessons
-        if (request.getCurriculum() != null) {
-            int order = 1;
-            for (CourseImportRequest.CurriculumItemRequest item : request.getCurriculum()) {
-                CourseCurriculum curriculum = new CourseCurriculum();
-                curriculum.setCourse(course);
-                curriculum.setChapterTitle(item.getChapterTitle());
-                curriculum.setChapterDescription(item.getChapterDescription());
-                curriculum.setEstimatedDurationMinutes(item.getEstimatedDurationMinutes());
-                curriculum.setDisplayOrder(item.getDisplayOrder() != null ? item.getDisplayOrder() : order++);
-                curriculum = curriculumRepository.save(curriculum);
-
-                // Import lessons for this curriculum
-                if (item.getLessons() != null && !item.getLessons().isEmpty()) {
-                    int lessonOrder = 1;
-                    for (CourseImportRequest.LessonRequest lessonReq : item.getLessons()) {
-                        CurriculumLesson lesson = new CurriculumLesson();
-                        lesson.setCurriculum(curriculum);
-                        lesson.setLessonTitle(lessonReq.getLessonTitle());
-                        lesson.setLessonDescription(lessonReq.getLessonDescription());
-                        lesson.setVideoUrl(lessonReq.getVideoUrl());
-                        lesson.setEstimatedDurationMinutes(lessonReq.getEstimatedDurationMinutes());
-                        lesson.setDisplayOrder(lessonReq.getDisplayOrder() != null ? lessonReq.getDisplayOrder() : lessonOrder++);
-                        lesson.setIsFreePreview(lessonReq.getIsFreePreview() != null ? lessonReq.getIsFreePreview() : false);
-                        curriculumLessonRepository.save(lesson);
-                    }
+        List<CourseImportRequest.CurriculumItemRequest> items = request.getCurriculum() != null ? request.getCurriculum() : List.of();
+        Map<String, ArrayDeque<CourseCurriculum>> storedByHash = new HashMap<>();
+        for (CourseCurriculum chapter : stored.chapters().getOrDefault(courseId, List.of())) {
+            if (chapter.getContentHash() != null) {
+                storedByHash.computeIfAbsent(chapter.getContentHash(), h -> new ArrayDeque<>()).add(chapter);
+            }
+        }
+        List<CourseCurriculum> matched = new ArrayList<>(items.size());
+        List<String> itemHashes = new ArrayList<>(items.size());
+        for (CourseImportRequest.CurriculumItemRequest item : items) {
+            String hash = fingerprint(item);
+            ArrayDeque<CourseCurriculum> candidates = storedByHash.get(hash);
+            itemHashes.add(hash);
+            matched.add(candidates != null ? candidates.poll() : null);
+        }
+        Set<CourseCurriculum> used = new HashSet<>(matched);
+        ArrayDeque<CourseCurriculum> unmatched = stored.chapters().getOrDefault(courseId, List.of()).stream()
+                .filter(chapter -> !used.contains(chapter))
+                .collect(Collectors.toCollection(ArrayDeque::new));
+
+        int order = 1;
+        for (int i = 0; i < items.size(); i++) {
+            CourseImportRequest.CurriculumItemRequest item = items.get(i);
+            Integer displayOrder = item.getDisplayOrder() != null ? item.getDisplayOrder() : order++;
+            CourseCurriculum curriculum = matched.get(i);
+            if (curriculum != null) {
+                if (Objects.equals(curriculum.getDisplayOrder(), displayOrder)) {
+                    result.setChaptersUnchanged(result.getChaptersUnchanged() + 1);
+                } else {
+                    curriculum.setDisplayOrder(displayOrder);
+                    result.setRowsUpdated(result.getRowsUpdated() + 1);
                 }
+                continue;
             }
+
+            curriculum = unmatched.poll();
+            List<CurriculumLesson> storedLessons = List.of();
+            if (curriculum == null) {
+                curriculum = new CourseCurriculum();
+                curriculum.setCourse(course);
+                applyChapter(curriculum, item, displayOrder, itemHashes.get(i));
+                entityManager.persist(curriculum);
+                result.setChapters(result.getChapters() + 1);
+            } else {
+                applyChapter(curriculum, item, displayOrder, itemHashes.get(i));
+                result.setRowsUpdated(result.getRowsUpdated() + 1);
+                storedLessons = stored.lessons().getOrDefault(curriculum.getId(), List.of());
+            }
+            syncLessons(curriculum, item.getLessons() != null ? item.getLessons() : List.of(), storedLessons, result);
         }
 
-        // Import prerequisites (will be processed in second pass)
-        // This is handled separately after all courses are created
+        // Lessons go first as they reference chapters
+        for (CourseCurriculum chapter : unmatched) {
+            for (CurriculumLesson lesson : stored.lessons().getOrDefault(chapter.getId(), List.of())) {
+                entityManager.remove(lesson);
+                result.setRowsDeleted(result.getRowsDeleted() + 1);
+            }
+            entityManager.remove(chapter);
+            result.setRowsDeleted(result.getRowsDeleted() + 1);
+        }
     }
 
-    @Transactional
-    public void importPrerequisites(List<CourseImportRequest> requests) {
-        for (CourseImportRequest request : requests) {
-            if (request.getPrerequisiteIds() != null && !request.getPrerequisiteIds().isEmpty()) {
-                Course course = courseRepository.findById(request.getCourseId()).orElse(null);
-                if (course == null) {
-                    log.warn("Course not found for prerequisites: {}", request.getCourseId());
-                    continue;
-                }
+    private static void applyChapter(CourseCurriculum curriculum, CourseImportRequest.CurriculumItemRequest item,
+            Integer displayOrder, String contentHash) {
+        curriculum.setChapterTitle(item.getChapterTitle());
+        curriculum.setChapterDescription(item.getChapterDescription());
+        curriculum.setEstimatedDurationMinutes(item.getEstimatedDurationMinutes());
+        curriculum.setDisplayOrder(displayOrder);
+        curriculum.setContentHash(contentHash);
+    }
 
-                for (Long prereqId : request.getPrerequisiteIds()) {
-                    Course prereqCourse = courseRepository.findById(prereqId).orElse(null);
-                    if (prereqCourse == null) {
-                        log.warn("Prerequisite course not found: {} for course: {}", prereqId, request.getCourseId());
-                        continue;
-                    }
+    private void syncLessons(CourseCurriculum curriculum, List<CourseImportRequest.LessonRequest> lessons,
+            List<CurriculumLesson> storedLessons, CourseImportResponse result) {
+        int lessonOrder = 1;
+        for (int i = 0; i < Math.max(lessons.size(), storedLessons.size()); i++) {
+            if (i >= lessons.size()) {
+                entityManager.remove(storedLessons.get(i));
+                result.setRowsDeleted(result.getRowsDeleted() + 1);
+                continue;
+            }
+            CourseImportRequest.LessonRequest lessonReq = lessons.get(i);
+            Integer displayOrder = lessonReq.getDisplayOrder() != null ? lessonReq.getDisplayOrder() : lessonOrder++;
+            boolean freePreview = lessonReq.getIsFreePreview() != null ? lessonReq.getIsFreePreview() : false;
+            if (i >= storedLessons.size()) {
+                CurriculumLesson lesson = new CurriculumLesson();
+                lesson.setCurriculum(curriculum);
+                applyLesson(lesson, lessonReq, displayOrder, freePreview);
+                entityManager.persist(lesson);
+                result.setLessons(result.getLessons() + 1);
+                continue;
+            }
+            CurriculumLesson lesson = storedLessons.get(i);
+            if (!Objects.equals(lesson.getLessonTitle(), lessonReq.getLessonTitle())
+                    || !Objects.equals(lesson.getLessonDescription(), lessonReq.getLessonDescription())
+                    || !Objects.equals(lesson.getVideoUrl(), lessonReq.getVideoUrl())
+                    || !Objects.equals(lesson.getEstimatedDurationMinutes(), lessonReq.getEstimatedDurationMinutes())
+                    || !Objects.equals(lesson.getDisplayOrder(), displayOrder)
+                    || !Objects.equals(lesson.getIsFreePreview(), freePreview)) {
+                applyLesson(lesson, lessonReq, displayOrder, freePreview);
+                result.setRowsUpdated(result.getRowsUpdated() + 1);
+            }
+        }
+    }
+
+    private static void applyLesson(CurriculumLesson lesson, CourseImportRequest.LessonRequest lessonReq,
+            Integer displayOrder, boolean freePreview) {
+        lesson.setLessonTitle(lessonReq.getLessonTitle());
+        lesson.setLessonDescription(lessonReq.getLessonDescription());
+        lesson.setVideoUrl(lessonReq.getVideoUrl());
+        lesson.setEstimatedDurationMinutes(lessonReq.getEstimatedDurationMinutes());
+        lesson.setDisplayOrder(displayOrder);
+        lesson.setIsFreePreview(freePreview);
+    }
+
+    private static boolean hasPrerequisites(CourseImportRequest request) {
+        return request.getPrerequisiteIds() != null && !request.getPrerequisiteIds().isEmpty();
+    }
+
+    private String fingerprint(CourseImportRequest request) {
+        return digest(request);
+    }
+
+    // Display order is left out so a chapter that only moved keeps its rows
+    private String fingerprint(CourseImportRequest.CurriculumItemRequest item) {
+        return digest(new CourseImportRequest.CurriculumItemRequest(item.getChapterTitle(), item.getChapterDescription(),
+                item.getEstimatedDurationMinutes(), null, item.getLessons()));
+    }
+
+    private String digest(Object value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(value));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-                    // Check if prerequisite already exists
-                    boolean exists = prerequisiteRepository.findByCourse_CourseId(course.getCourseId())
-                            .stream()
-                            .anyMatch(p -> p.getPrerequisiteCourse().getCourseId().equals(prereqId));
-
-                    if (!exists) {
-                        CoursePrerequisite prerequisite = new CoursePrerequisite();
-                        prerequisite.setCourse(course);
-                        prerequisite.setPrerequisiteCourse(prereqCourse);
-                        prerequisite.setType(CoursePrerequisite.PrerequisiteType.REQUIRED);
-                        prerequisiteRepository.save(prerequisite);
+    /**
+     * Second pass: links prerequisites once every imported course exists. Ids
+     * are resolved against the imported set plus one lookup of the remaining
+     * referenced ids, and the requested edges are checked for cycles against
+     * the stored graph, in which the imported courses' old rows were already
+     * removed with their chunk. Edges inside a cycle are skipped and the cycle
+     * reported; the rest are inserted in one transaction, which also stores the
+     * hash of every course whose prerequisites were all linked. A course with a
+     * missing or skipped prerequisite keeps no hash, so the next import
+     * processes it again instead of skipping it.
+     */
+    private void writePrerequisites(Map<Long, PendingLinks> prerequisites, Set<Long> imported,
+            CourseImportResponse result) {
+        if (prerequisites.isEmpty()) {
+            result.setPrerequisiteCycles(List.of());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            Set<Long> known = new HashSet<>(imported);
+            List<Long> outside = prerequisites.values().stream()
+                    .flatMap(links -> links.prerequisiteIds().stream())
+                    .filter(id -> !imported.contains(id))
+                    .distinct()
+                    .toList();
+            for (int from = 0; from < outside.size(); from += chunkSize) {
+                known.addAll(courseRepository.findExistingIds(outside.subList(from, Math.min(from + chunkSize, outside.size()))));
+            }
+
+            PrerequisiteGraph graph = new PrerequisiteGraph();
+            for (Object[] edge : prerequisiteRepository.findAllEdges()) {
+                graph.add((Long) edge[0], (Long) edge[1]);
+            }
+            Map<Long, Set<Long>> requested = new LinkedHashMap<>();
+            Set<Long> incomplete = new HashSet<>();
+            prerequisites.forEach((courseId, links) -> {
+                Set<Long> resolved = new LinkedHashSet<>();
+                for (Long prereqId : links.prerequisiteIds()) {
+                    if (!known.contains(prereqId)) {
+                        log.warn("Prerequisite course not found: {} for course: {}", prereqId, courseId);
+                        result.setMissingPrerequisites(result.getMissingPrerequisites() + 1);
+                        incomplete.add(courseId);
+                    } else if (resolved.add(prereqId)) {
+                        graph.add(courseId, prereqId);
                     }
                 }
+                requested.put(courseId, resolved);
+            });
+
+            List<List<Long>> cycles = graph.cycles();
+            Map<Long, Integer> cycleOf = new HashMap<>();
+            for (int i = 0; i < cycles.size(); i++) {
+                for (Long courseId : cycles.get(i)) {
+                    cycleOf.put(courseId, i);
+                }
+                log.warn("Prerequisite cycle between courses {}; its imported links are skipped", cycles.get(i));
             }
-        }
+
+            requested.forEach((courseId, prereqIds) -> {
+                Course course = entityManager.getReference(Course.class, courseId);
+                Integer cycle = cycleOf.get(courseId);
+                for (Long prereqId : prereqIds) {
+                    if (cycle != null && cycle.equals(cycleOf.get(prereqId))) {
+                        result.setCyclicPrerequisites(result.getCyclicPrerequisites() + 1);
+                        incomplete.add(courseId);
+                        continue;
+                    }
+                    CoursePrerequisite prerequisite = new CoursePrerequisite();
+                    prerequisite.setCourse(course);
+                    prerequisite.setPrerequisiteCourse(entityManager.getReference(Course.class, prereqId));
+                    prerequisite.setType(CoursePrerequisite.PrerequisiteType.REQUIRED);
+                    entityManager.persist(prerequisite);
+                    result.setPrerequisites(result.getPrerequisites() + 1);
+                }
+                eventPublisher.publishEvent(CourseChangedEvent.updated(courseId));
+            });
+            entityManager.flush();
+            entityManager.clear();
+
+            List<Object[]> hashes = new ArrayList<>(requested.size());
+            requested.keySet().stream()
+                    .filter(courseId -> !incomplete.contains(courseId))
+                    .forEach(courseId -> hashes.add(new Object[] {prerequisites.get(courseId).hash(), courseId}));
+            jdbcTemplate.batchUpdate(SET_IMPORT_HASH_SQL, hashes);
+            result.setPrerequisiteCycles(cycles);
+        });
     }
 }
@@ -4,12 +4,19 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.request.CourseCatalogRequest;
+import org.example.khoahoconl.dto.response.CatalogFacetsResponse;
 import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.CourseSearchResponse;
+import org.example.khoahoconl.dto.response.CursorPageResponse;
 import org.example.khoahoconl.dto.response.EnhancedCourseResponse;
 import org.example.khoahoconl.dto.response.PaymentResponse;
+import org.example.khoahoconl.dto.response.TrendingCourseResponse;
+import org.example.khoahoconl.enums.TrendingWindow;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -26,12 +33,32 @@ public class CourseManagementFacade {
     CourseService courseService;
     EnrollmentService enrollmentService;
     PaymentService paymentService;
+    CourseDetailSnapshotStore courseDetailSnapshotStore;
+    CatalogVersion catalogVersion;
+    CourseFacetService courseFacetService;
+    CourseTrendingService courseTrendingService;
 
     // ========== Course Operations ==========
     public List<CourseResponse> getAllCourses() {
         return courseService.getAllCourses();
     }
 
+    public CursorPageResponse<CourseResponse> getCatalogPage(CourseCatalogRequest request) {
+        return courseService.getCatalogPage(request);
+    }
+
+    public List<CourseSearchResponse> searchCourses(String query, Integer limit) {
+        return courseService.searchCourses(query, limit);
+    }
+
+    public CatalogFacetsResponse getCatalogFacets() {
+        return courseFacetService.getFacets();
+    }
+
+    public List<TrendingCourseResponse> getTrendingCourses(TrendingWindow window, Integer limit) {
+        return courseTrendingService.getTrending(window, limit);
+    }
+
     public CourseResponse getCourse(Long courseId) {
         return courseService.getCourse(courseId);
     }
@@ -40,6 +67,22 @@ public class CourseManagementFacade {
         return courseService.getEnhancedCourseDetails(courseId);
     }
 
+    public long getCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    public Instant getCatalogLastModified() {
+        return catalogVersion.lastModified();
+    }
+
+    public String getEntitlementFingerprint() {
+        return courseService.getEntitlementFingerprint();
+    }
+
+    public CourseDetailSnapshotStore.Snapshot getCourseDetailsSnapshot(Long courseId) {
+        return courseDetailSnapshotStore.get(courseId);
+    }
+
     // ========== Enrollment Operations ==========
     @Transactional
     public Long enrollUserInCourse(Long userId, Long courseId) {
@@ -0,0 +1,250 @@
+package org.example.khoahoconl.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.example.khoahoconl.repository.CourseLearningObjectiveRepository;
+import org.example.khoahoconl.repository.CourseRepository;
+import org.example.khoahoconl.repository.CurriculumLessonRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over course text with BM25 ranking. Text is
+ * lower-cased and folded to ASCII (Vietnamese diacritics removed, đ to d), so
+ * "lập trình" and "lap trinh" match. Fields are weighted before scoring; the
+ * last query term also matches as a prefix. Built once at startup and kept
+ * current from committed course changes.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class CourseSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final float TITLE_WEIGHT = 3.0f;
+    static final float CATEGORY_WEIGHT = 2.0f;
+    static final float LEVEL_WEIGHT = 1.5f;
+    static final float TEXT_WEIGHT = 1.0f;
+    static final int MAX_PREFIX_EXPANSIONS = 32;
+    static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    final CourseRepository courseRepository;
+    final CourseLearningObjectiveRepository learningObjectiveRepository;
+    final CurriculumLessonRepository curriculumLessonRepository;
+
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (courseId -> weighted term frequency)
+    final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // courseId -> indexed terms with their weighted frequencies
+    final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    final Map<Long, Float> documentLengths = new HashMap<>();
+    double totalLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, List<String>> objectives = groupTexts(learningObjectiveRepository.findAllObjectiveTexts());
+        Map<Long, List<String>> lessons = groupTexts(curriculumLessonRepository.findAllLessonTitles());
+        List<Course> courses = courseRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            documentLengths.clear();
+            totalLength = 0;
+            for (Course course : courses) {
+                Long id = course.getCourseId();
+                put(id, analyze(course, objectives.getOrDefault(id, List.of()), lessons.getOrDefault(id, List.of())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Course search index built: {} courses, {} terms in {} ms",
+                courses.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        Long courseId = event.courseId();
+        Course course = event.type() == CourseChangedEvent.ChangeType.DELETED ? null
+                : courseRepository.findById(courseId).orElse(null);
+        Map<String, Float> terms = course == null ? null : analyze(course,
+                learningObjectiveRepository.findObjectiveTextsByCourseId(courseId),
+                curriculumLessonRepository.findLessonTitlesByCourseId(courseId));
+
+        lock.writeLock().lock();
+        try {
+            remove(courseId);
+            if (terms != null) {
+                put(courseId, terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} course ids ordered by descending BM25 score.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                boolean last = i == queryTerms.size() - 1;
+                for (Map.Entry<String, Map<Long, Float>> entry : matchingTerms(term, last)) {
+                    Map<Long, Float> docs = entry.getValue();
+                    double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                        double tf = posting.getValue();
+                        double norm = K1 * (1 - B + B * documentLengths.get(posting.getKey()) / averageLength);
+                        scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    }
+                }
+            }
+            return topN(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Exact match, plus prefix expansion for the term being typed
+    private List<Map.Entry<String, Map<Long, Float>>> matchingTerms(String term, boolean allowPrefix) {
+        if (!allowPrefix) {
+            Map<Long, Float> docs = postings.get(term);
+            return docs == null ? List.of() : List.of(Map.entry(term, docs));
+        }
+        List<Map.Entry<String, Map<Long, Float>>> matches = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(term, true).entrySet()) {
+            if (!entry.getKey().startsWith(term) || matches.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matches.add(entry);
+        }
+        return matches;
+    }
+
+    private static List<Hit> topN(Map<Long, Double> scores, int limit) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            heap.offer(new Hit(e.getKey(), e.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::courseId));
+        return hits;
+    }
+
+    private void put(Long courseId, Map<String, Float> terms) {
+        float length = 0;
+        for (Map.Entry<String, Float> e : terms.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(courseId, e.getValue());
+            length += e.getValue();
+        }
+        documents.put(courseId, terms);
+        documentLengths.put(courseId, length);
+        totalLength += length;
+    }
+
+    private void remove(Long courseId) {
+        Map<String, Float> terms = documents.remove(courseId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(courseId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Float length = documentLengths.remove(courseId);
+        totalLength -= length == null ? 0 : length;
+    }
+
+    private static Map<String, Float> analyze(Course course, List<String> objectives, List<String> lessons) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, course.getCourseTitle(), TITLE_WEIGHT);
+        addField(terms, course.getCategory(), CATEGORY_WEIGHT);
+        addField(terms, course.getLevel(), LEVEL_WEIGHT);
+        addField(terms, course.getDescription(), TEXT_WEIGHT);
+        objectives.forEach(text -> addField(terms, text, TEXT_WEIGHT));
+        lessons.forEach(text -> addField(terms, text, TEXT_WEIGHT));
+        return terms;
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static Map<Long, List<String>> groupTexts(List<Object[]> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        return grouped;
+    }
+
+    public record Hit(Long courseId, double score) {
+    }
+}
@@ -3,19 +3,26 @@ package org.example.khoahoconl.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.dto.request.CourseCatalogRequest;
 import org.example.khoahoconl.dto.request.CourseUpdateRequest;
 import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.CourseSearchResponse;
+import org.example.khoahoconl.dto.response.CursorPageResponse;
 import org.example.khoahoconl.dto.response.EnhancedCourseResponse;
 import org.example.khoahoconl.entity.Course;
-import org.example.khoahoconl.entity.User;
+import org.example.khoahoconl.enums.CatalogSort;
+import org.example.khoahoconl.event.CourseChangedEvent;
 import org.example.khoahoconl.exception.AppException;
 import org.example.khoahoconl.exception.ErrorCode;
 import org.example.khoahoconl.mapper.CourseMapper;
-import org.example.khoahoconl.mapper.UserMapper;
 import org.example.khoahoconl.repository.*;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.example.khoahoconl.security.JwtPrincipal;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,31 +31,89 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CourseService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int DEFAULT_SEARCH_LIMIT = 10;
+    static final int MAX_SEARCH_LIMIT = 50;
+
     CourseRepository courseRepository;
-    CourseLearningObjectiveRepository learningObjectiveRepository;
-    CourseCurriculumRepository curriculumRepository;
-    CurriculumLessonRepository curriculumLessonRepository;
-    CoursePrerequisiteRepository prerequisiteRepository;
-    UserRepository userRepository;
     CourseMapper courseMapper;
-    UserMapper userMapper;
-    EnrollmentService enrollmentService;
+    EntitlementCache entitlementCache;
+    CourseDetailLoader courseDetailLoader;
+    CourseCatalogCache courseCatalogCache;
+    CourseSearchIndex courseSearchIndex;
+    ApplicationEventPublisher eventPublisher;
 
     public List<CourseResponse> getAllCourses() {
-        return courseRepository.findAll().stream()
+        List<CourseResponse> courses = courseCatalogCache.getAllCourses(() -> courseRepository.findAll().stream()
                 .map(courseMapper::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        return maskVideos(courses);
     }
 
-    public CourseResponse getCourse(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
+    /**
+     * Fingerprint of the caller's approved courses, which decide the video
+     * URLs visible in catalog lists. Anonymous callers share one value.
+     */
+    public String getEntitlementFingerprint() {
+        Long userId = JwtPrincipal.currentUserId();
+        return userId == null ? "anon" : Long.toHexString(entitlementCache.get(userId).approvedFingerprint());
+    }
 
-        CourseResponse response = courseMapper.toDTO(course);
+    public CursorPageResponse<CourseResponse> getCatalogPage(CourseCatalogRequest request) {
+        int size = request.getSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(request.getSize(), MAX_PAGE_SIZE));
+        Sort.Direction direction = request.getDirection() != null ? request.getDirection() : Sort.Direction.ASC;
+        CatalogSort sortField = request.getSort() != null ? request.getSort() : CatalogSort.ID;
+
+        Specification<Course> spec = CourseSpecifications.withCreator().and(CourseSpecifications.matches(request));
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            CatalogCursor cursor = CatalogCursor.decode(request.getCursor(), sortField, direction);
+            spec = spec.and(CourseSpecifications.after(sortField, direction, cursor.lastValue(), cursor.lastId()));
+        }
+
+        // Course id breaks ties so the order is total and the keyset is stable
+        Sort sort = sortField == CatalogSort.ID
+                ? Sort.by(direction, "courseId")
+                : Sort.by(direction, sortField.getAttribute()).and(Sort.by(direction, "courseId"));
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Course> rows = courseRepository.findBy(spec, q -> q.sortBy(sort).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Course> page = hasNext ? rows.subList(0, size) : rows;
+
+        return CursorPageResponse.<CourseResponse>builder()
+                .items(maskVideos(page.stream().map(courseMapper::toDTO).collect(Collectors.toList())))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CatalogCursor.after(page.get(page.size() - 1), sortField, direction).encode() : null)
+                .build();
+    }
+
+    public List<CourseSearchResponse> searchCourses(String query, Integer limit) {
+        int max = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        List<CourseSearchResponse> results = new ArrayList<>();
+        for (CourseSearchIndex.Hit hit : courseSearchIndex.search(query, max)) {
+            // A null load means the course was deleted after the index lookup; nothing is cached for it
+            CourseResponse course = courseCatalogCache.getCourse(hit.courseId(),
+                    id -> courseRepository.findById(id).map(courseMapper::toDTO).orElse(null));
+            if (course != null) {
+                results.add(CourseSearchResponse.builder()
+                        .course(withoutVideo(course))
+                        .score(hit.score())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    public CourseResponse getCourse(Long id) {
+        CourseResponse response = courseCatalogCache.getCourse(id, courseId -> courseRepository.findById(courseId)
+                .map(courseMapper::toDTO)
+                .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND)));
 
-        // Hide video URL if user is not enrolled
-        if (!isUserEnrolledInCourse(id)) {
-            response.setUrlVideo(null);
+        // Hide video URL if user is not enrolled; the cached instance is shared, so mask a copy
+        if (!entitlementCache.get(JwtPrincipal.currentUserId()).isApproved(id)) {
+            return withoutVideo(response);
         }
 
         return response;
@@ -58,91 +123,32 @@ public class CourseService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
         courseMapper.updateCourse(course, request);
-        return courseMapper.toDTO(courseRepository.save(course));
+        // No longer matches the imported payload, so the next import rewrites it
+        course.setImportHash(null);
+        CourseResponse response = courseMapper.toDTO(courseRepository.save(course));
+        eventPublisher.publishEvent(CourseChangedEvent.updated(courseId));
+        return response;
     }
 
     public EnhancedCourseResponse getEnhancedCourseDetails(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
-
-        List<String> objectives = learningObjectiveRepository
-                .findByCourse_CourseIdOrderByDisplayOrder(courseId)
-                .stream()
-                .map(obj -> obj.getObjective())
-                .collect(Collectors.toList());
-
-        List<EnhancedCourseResponse.CurriculumItem> curriculum = curriculumRepository
-                .findByCourse_CourseIdOrderByDisplayOrder(courseId)
-                .stream()
-                .map(c -> {
-                    List<EnhancedCourseResponse.LessonInfo> lessons = curriculumLessonRepository
-                            .findByCurriculumIdOrderByDisplayOrder(c.getId())
-                            .stream()
-                            .map(l -> EnhancedCourseResponse.LessonInfo.builder()
-                            .lessonId(l.getId())
-                            .lessonTitle(l.getLessonTitle())
-                            .lessonDescription(l.getLessonDescription())
-                            .videoUrl(l.getVideoUrl())
-                            .displayOrder(l.getDisplayOrder())
-                            .estimatedDurationMinutes(l.getEstimatedDurationMinutes())
-                            .isFreePreview(l.getIsFreePreview())
-                            .build())
-                            .collect(Collectors.toList());
-
-                    return EnhancedCourseResponse.CurriculumItem.builder()
-                            .chapterTitle(c.getChapterTitle())
-                            .chapterDescription(c.getChapterDescription())
-                            .estimatedDurationMinutes(c.getEstimatedDurationMinutes())
-                            .displayOrder(c.getDisplayOrder())
-                            .lessons(lessons)
-                            .build();
-                })
-                .collect(Collectors.toList());
-
-        List<EnhancedCourseResponse.PrerequisiteInfo> prerequisites = prerequisiteRepository
-                .findByCourse_CourseId(courseId)
-                .stream()
-                .map(p -> EnhancedCourseResponse.PrerequisiteInfo.builder()
-                .courseId(p.getPrerequisiteCourse().getCourseId())
-                .courseTitle(p.getPrerequisiteCourse().getCourseTitle())
-                .type(p.getType().name())
-                .build())
-                .collect(Collectors.toList());
+        return courseCatalogCache.getCourseDetails(courseId, courseDetailLoader::load);
+    }
 
-        int totalMinutes = curriculum.stream()
-                .mapToInt(c -> c.getEstimatedDurationMinutes() != null ? c.getEstimatedDurationMinutes() : 0)
-                .sum();
-        int totalHours = (int) Math.ceil(totalMinutes / 60.0);
-
-        return EnhancedCourseResponse.builder()
-                .courseId(course.getCourseId())
-                .courseTitle(course.getCourseTitle())
-                .description(course.getDescription())
-                .urlVideo(course.getUrlVideo())
-                .price(course.getPrice())
-                .createBy(userMapper.toUserResponse(course.getCreateBy()))
-                .learningObjectives(objectives)
-                .curriculum(curriculum)
-                .prerequisites(prerequisites)
-                .estimatedDurationHours(totalHours)
+    private static CourseResponse withoutVideo(CourseResponse response) {
+        return CourseResponse.builder()
+                .courseId(response.getCourseId())
+                .courseTitle(response.getCourseTitle())
+                .description(response.getDescription())
+                .price(response.getPrice())
+                .createBy(response.getCreateBy())
+                .updatedDate(response.getUpdatedDate())
                 .build();
     }
 
-    private boolean isUserEnrolledInCourse(Long courseId) {
-        try {
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            if ("anonymousUser".equals(username)) {
-                return false;
-            }
-
-            User user = userRepository.findByUserName(username).orElse(null);
-            if (user == null) {
-                return false;
-            }
-
-            return enrollmentService.isUserEnrolled(user.getUserId(), courseId);
-        } catch (Exception e) {
-            return false;
-        }
+    private List<CourseResponse> maskVideos(List<CourseResponse> courses) {
+        EntitlementCache.Entitlements entitlements = entitlementCache.get(JwtPrincipal.currentUserId());
+        return courses.stream()
+                .map(course -> entitlements.isApproved(course.getCourseId()) ? course : withoutVideo(course))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,283 @@
+package org.example.khoahoconl.service;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.dto.response.TrendingCourseResponse;
+import org.example.khoahoconl.entity.CourseEnrollmentRollup;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.enums.TrendingWindow;
+import org.example.khoahoconl.event.CourseChangedEvent;
+import org.example.khoahoconl.event.EnrollmentStatusChangedEvent;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.repository.CourseEnrollmentRollupRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-course enrollment and approval counts over the last week, kept in a ring
+ * of hourly buckets. Committed {@link EnrollmentStatusChangedEvent}s increment
+ * {@link LongAdder}s, so concurrent enrollments never contend on a lock, and
+ * trending queries sum at most 168 buckets in memory. Deltas are flushed to
+ * {@code course_enrollment_rollup} periodically, and the last week is reloaded
+ * from there on startup.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class CourseTrendingService {
+
+    static final int RING_HOURS = TrendingWindow.WEEK.getHours();
+    static final int MAX_LIMIT = 50;
+    static final Comparator<Map.Entry<Long, long[]>> BY_ACTIVITY =
+            Comparator.<Map.Entry<Long, long[]>>comparingLong(e -> e.getValue()[0])
+                    .thenComparingLong(e -> e.getValue()[1])
+                    .reversed()
+                    .thenComparing(Map.Entry::getKey);
+
+    /**
+     * Counts of one course in one hour. The flushed fields are only touched
+     * under the service's flush lock.
+     */
+    static final class Counter {
+        final LongAdder enrollments = new LongAdder();
+        final LongAdder approvals = new LongAdder();
+        long flushedEnrollments;
+        long flushedApprovals;
+    }
+
+    record Bucket(long hour, ConcurrentHashMap<Long, Counter> counters) {
+        Bucket(long hour) {
+            this(hour, new ConcurrentHashMap<>());
+        }
+    }
+
+    record Delta(Counter counter, Long courseId, long hour, long enrollments, long approvals) {
+    }
+
+    CourseEnrollmentRollupRepository rollupRepository;
+    CourseService courseService;
+    TransactionTemplate transactionTemplate;
+    AtomicReferenceArray<Bucket> ring = new AtomicReferenceArray<>(RING_HOURS);
+    // Buckets pushed out of the ring that may still hold unflushed counts
+    Queue<Bucket> retired = new ConcurrentLinkedQueue<>();
+    Object flushLock = new Object();
+    AtomicBoolean loaded = new AtomicBoolean();
+
+    public CourseTrendingService(CourseEnrollmentRollupRepository rollupRepository, CourseService courseService,
+            PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.courseService = courseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnrollmentStatusChanged(EnrollmentStatusChangedEvent event) {
+        boolean enrolled = event.previousStatus() == null;
+        boolean approved = event.status() == Status.APPROVED && event.previousStatus() != Status.APPROVED;
+        if (!enrolled && !approved) {
+            return;
+        }
+        Bucket bucket = bucket(currentHour());
+        if (bucket == null) {
+            return;
+        }
+        Counter counter = bucket.counters().computeIfAbsent(event.courseId(), id -> new Counter());
+        if (enrolled) {
+            counter.enrollments.increment();
+        }
+        if (approved) {
+            counter.approvals.increment();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.type() != CourseChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        for (int slot = 0; slot < RING_HOURS; slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null) {
+                bucket.counters().remove(event.courseId());
+            }
+        }
+    }
+
+    /**
+     * Most enrolled courses in the window, ties broken by approvals. HOUR
+     * covers the current clock hour.
+     */
+    public List<TrendingCourseResponse> getTrending(TrendingWindow window, Integer limit) {
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_LIMIT));
+        long now = currentHour();
+        Map<Long, long[]> totals = new HashMap<>();
+        for (long hour = now - window.getHours() + 1; hour <= now; hour++) {
+            Bucket bucket = ring.get(slot(hour));
+            if (bucket == null || bucket.hour() != hour) {
+                continue;
+            }
+            bucket.counters().forEach((courseId, counter) -> {
+                long[] total = totals.computeIfAbsent(courseId, id -> new long[2]);
+                total[0] += counter.enrollments.sum();
+                total[1] += counter.approvals.sum();
+            });
+        }
+
+        List<Map.Entry<Long, long[]>> ranked = new ArrayList<>(totals.entrySet());
+        ranked.sort(BY_ACTIVITY);
+        List<TrendingCourseResponse> trending = new ArrayList<>(size);
+        for (Map.Entry<Long, long[]> entry : ranked) {
+            if (trending.size() == size) {
+                break;
+            }
+            CourseResponse course;
+            try {
+                course = courseService.getCourse(entry.getKey());
+            } catch (AppException e) {
+                // Deleted since it was counted
+                continue;
+            }
+            trending.add(TrendingCourseResponse.builder()
+                    .courseId(entry.getKey())
+                    .courseTitle(course.getCourseTitle())
+                    .enrollments(entry.getValue()[0])
+                    .approvals(entry.getValue()[1])
+                    .build());
+        }
+        return trending;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (flushLock) {
+            long oldest = currentHour() - RING_HOURS + 1;
+            List<CourseEnrollmentRollup> rows = rollupRepository.findByIdBucketHourGreaterThanEqual(oldest);
+            for (CourseEnrollmentRollup row : rows) {
+                Bucket bucket = bucket(row.getId().getBucketHour());
+                if (bucket == null) {
+                    continue;
+                }
+                Counter counter = bucket.counters().computeIfAbsent(row.getId().getCourseId(), id -> new Counter());
+                // Already stored, so counted as flushed
+                counter.enrollments.add(row.getEnrollments());
+                counter.approvals.add(row.getApprovals());
+                counter.flushedEnrollments += row.getEnrollments();
+                counter.flushedApprovals += row.getApprovals();
+            }
+            loaded.set(true);
+            log.info("Trending counters loaded from {} rollup rows", rows.size());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${catalog.trending.flush-interval:PT1M}",
+            fixedDelayString = "${catalog.trending.flush-interval:PT1M}")
+    @PreDestroy
+    public void flush() {
+        synchronized (flushLock) {
+            // Counts from before the load are not in the table yet and would be added twice
+            if (!loaded.get()) {
+                return;
+            }
+            // Retired buckets are drained before the ring scan, so one lapped during the scan waits
+            // in the queue for the next flush; each bucket is collected at most once per flush,
+            // since its flushed counts are only advanced after the commit
+            List<Delta> deltas = new ArrayList<>();
+            Set<Bucket> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Bucket> drained = new ArrayList<>();
+            for (Bucket bucket; (bucket = retired.poll()) != null; ) {
+                if (seen.add(bucket)) {
+                    collect(bucket, deltas);
+                    drained.add(bucket);
+                }
+            }
+            for (int slot = 0; slot < RING_HOURS; slot++) {
+                Bucket bucket = ring.get(slot);
+                if (bucket != null && seen.add(bucket)) {
+                    collect(bucket, deltas);
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> deltas.forEach(delta -> rollupRepository
+                        .addCounts(delta.courseId(), delta.hour(), delta.enrollments(), delta.approvals())));
+            } catch (RuntimeException e) {
+                retired.addAll(drained);
+                log.warn("Trending rollup flush of {} rows failed; retrying next interval", deltas.size(), e);
+                return;
+            }
+            for (Delta delta : deltas) {
+                delta.counter().flushedEnrollments += delta.enrollments();
+                delta.counter().flushedApprovals += delta.approvals();
+            }
+            log.debug("Flushed {} trending rollup rows", deltas.size());
+        }
+    }
+
+    private static void collect(Bucket bucket, List<Delta> deltas) {
+        if (bucket == null) {
+            return;
+        }
+        bucket.counters().forEach((courseId, counter) -> {
+            long enrollments = counter.enrollments.sum() - counter.flushedEnrollments;
+            long approvals = counter.approvals.sum() - counter.flushedApprovals;
+            if (enrollments != 0 || approvals != 0) {
+                deltas.add(new Delta(counter, courseId, bucket.hour(), enrollments, approvals));
+            }
+        });
+    }
+
+    /**
+     * @return the bucket for the hour, replacing the one it laps, or null if
+     * the hour has already been lapped
+     */
+    private Bucket bucket(long hour) {
+        int slot = slot(hour);
+        Bucket current = ring.get(slot);
+        while (current == null || current.hour() < hour) {
+            Bucket fresh = new Bucket(hour);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                if (current != null) {
+                    retired.add(current);
+                }
+                return fresh;
+            }
+            current = ring.get(slot);
+        }
+        return current.hour() == hour ? current : null;
+    }
+
+    private static int slot(long hour) {
+        return (int) Math.floorMod(hour, (long) RING_HOURS);
+    }
+
+    private static long currentHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.khoahoconl.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset position in the admin enrollment listing: the request date and
+ * enrollment id of the last row returned, as an opaque URL-safe token.
+ */
+public record EnrollmentCursor(Sort.Direction direction, LocalDateTime requestDate, long lastId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = direction.name() + SEPARATOR + requestDate + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EnrollmentCursor decode(String token, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3 || Sort.Direction.valueOf(parts[0]) != direction) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return new EnrollmentCursor(direction, LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -4,23 +4,36 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.dto.request.EnrollmentQueryRequest;
+import org.example.khoahoconl.dto.response.BulkStatusUpdateResponse;
+import org.example.khoahoconl.dto.response.CursorPageResponse;
+import org.example.khoahoconl.dto.response.EnrollmentResponse;
 import org.example.khoahoconl.entity.CourseEnrollment;
-import org.example.khoahoconl.entity.User;
 import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.event.EnrollmentStatusChangedEvent;
 import org.example.khoahoconl.exception.AppException;
 import org.example.khoahoconl.exception.ErrorCode;
 import org.example.khoahoconl.mapper.CourseMapper;
+import org.example.khoahoconl.mapper.EnrollmentMapper;
+import org.example.khoahoconl.repository.AdminEnrollmentView;
 import org.example.khoahoconl.repository.CourseEnrollmentRepository;
 import org.example.khoahoconl.repository.CourseRepository;
 import org.example.khoahoconl.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,45 +42,81 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EnrollmentService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    // Keeps IN lists well inside driver and optimizer limits
+    static final int BULK_CHUNK_SIZE = 500;
+
     CourseEnrollmentRepository enrollmentRepository;
     CourseRepository courseRepository;
     UserRepository userRepository;
     CourseMapper courseMapper;
+    EnrollmentMapper enrollmentMapper;
+    EntitlementCache entitlementCache;
+    ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Long enrollCourse(Long userId, Long courseId) {
-        if (enrollmentRepository.findByUser_UserIdAndCourse_CourseId(userId, courseId).isPresent()) {
+        // Fast path for repeat clicks; the unique key below is what actually prevents duplicates
+        if (entitlementCache.get(userId).status(courseId) != null) {
             throw new AppException(ErrorCode.ENROLLMENT_EXISTED);
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
-
+        // References avoid loading the user and course; a missing course surfaces as a foreign key violation
         CourseEnrollment enrollment = CourseEnrollment.builder()
-                .user(user)
-                .course(course)
+                .user(userRepository.getReferenceById(userId))
+                .course(courseRepository.getReferenceById(courseId))
                 .status(Status.PENDING)
                 .requestDate(LocalDateTime.now())
                 .build();
 
-        CourseEnrollment saved = enrollmentRepository.save(enrollment);
+        CourseEnrollment saved;
+        try {
+            saved = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            throw new AppException(enrollmentError(e));
+        }
+        eventPublisher.publishEvent(EnrollmentStatusChangedEvent.of(saved, null));
         log.info("User {} enrolled in course {}", userId, courseId);
         return saved.getCourseEnrollmentId();
     }
 
-    public String getEnrollmentStatus(Long userId, Long courseId) {
-        Optional<CourseEnrollment> enrollment = enrollmentRepository
-                .findByUser_UserIdAndCourse_CourseId(userId, courseId);
+    /**
+     * Enrolls the user in all the courses in one transaction. Ids come from the
+     * pooled generator, so the rows go out as JDBC insert batches on flush.
+     */
+    @Transactional
+    public List<CourseEnrollment> enrollCourses(Long userId, Collection<Long> courseIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CourseEnrollment> enrollments = new ArrayList<>(courseIds.size());
+        for (Long courseId : courseIds) {
+            enrollments.add(CourseEnrollment.builder()
+                    .user(userRepository.getReferenceById(userId))
+                    .course(courseRepository.getReferenceById(courseId))
+                    .status(Status.PENDING)
+                    .requestDate(now)
+                    .build());
+        }
+
+        List<CourseEnrollment> saved;
+        try {
+            saved = enrollmentRepository.saveAll(enrollments);
+            enrollmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new AppException(enrollmentError(e));
+        }
+        saved.forEach(enrollment -> eventPublisher.publishEvent(EnrollmentStatusChangedEvent.of(enrollment, null)));
+        log.info("User {} enrolled in {} courses", userId, saved.size());
+        return saved;
+    }
 
-        return enrollment.map(e -> e.getStatus().name()).orElse("NOT_ENROLLED");
+    public String getEnrollmentStatus(Long userId, Long courseId) {
+        Status status = entitlementCache.get(userId).status(courseId);
+        return status != null ? status.name() : "NOT_ENROLLED";
     }
 
     public boolean isUserEnrolled(Long userId, Long courseId) {
-        return enrollmentRepository.findByUser_UserIdAndCourse_CourseId(userId, courseId)
-                .map(e -> e.getStatus() == Status.APPROVED)
-                .orElse(false);
+        return entitlementCache.get(userId).isApproved(courseId);
     }
 
     public List<org.example.khoahoconl.dto.response.CourseResponse> getEnrolledCourses(Long userId) {
@@ -89,16 +138,46 @@ public class EnrollmentService {
                 .collect(Collectors.toList());
     }
 
-    public List<CourseEnrollment> getAllEnrollmentsForAdmin() {
-        return enrollmentRepository.findAll();
+    public CursorPageResponse<EnrollmentResponse> queryEnrollments(EnrollmentQueryRequest request) {
+        int size = request.getSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(request.getSize(), MAX_PAGE_SIZE));
+        Sort.Direction direction = request.getDirection() != null ? request.getDirection() : Sort.Direction.DESC;
+        EnrollmentCursor cursor = request.getCursor() != null && !request.getCursor().isBlank()
+                ? EnrollmentCursor.decode(request.getCursor(), direction)
+                : null;
+        LocalDateTime afterDate = cursor != null ? cursor.requestDate() : null;
+        Long afterId = cursor != null ? cursor.lastId() : null;
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Limit limit = Limit.of(size + 1);
+        List<AdminEnrollmentView> rows = direction.isAscending()
+                ? enrollmentRepository.findAdminViewAscending(request.getStatus(), request.getCourseId(),
+                        request.getFrom(), request.getTo(), afterDate, afterId, limit)
+                : enrollmentRepository.findAdminViewDescending(request.getStatus(), request.getCourseId(),
+                        request.getFrom(), request.getTo(), afterDate, afterId, limit);
+        boolean hasNext = rows.size() > size;
+        List<AdminEnrollmentView> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AdminEnrollmentView last = page.get(page.size() - 1);
+            nextCursor = new EnrollmentCursor(direction, last.getRequestDate(), last.getCourseEnrollmentId()).encode();
+        }
+        return CursorPageResponse.<EnrollmentResponse>builder()
+                .items(page.stream().map(enrollmentMapper::toResponse).collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional
     public void approveEnrollment(Long enrollmentId) {
         CourseEnrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new AppException(ErrorCode.ENROLLMENT_NOT_FOUND));
+        Status previousStatus = enrollment.getStatus();
         enrollment.setStatus(Status.APPROVED);
         enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(EnrollmentStatusChangedEvent.of(enrollment, previousStatus));
         log.info("Enrollment {} approved", enrollmentId);
     }
 
@@ -106,17 +185,107 @@ public class EnrollmentService {
     public void rejectEnrollment(Long enrollmentId) {
         CourseEnrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new AppException(ErrorCode.ENROLLMENT_NOT_FOUND));
+        Status previousStatus = enrollment.getStatus();
         enrollment.setStatus(Status.REJECTED);
         enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(EnrollmentStatusChangedEvent.of(enrollment, previousStatus));
         log.info("Enrollment {} rejected", enrollmentId);
     }
 
+    /**
+     * Moves every listed enrollment currently in {@code expected} (or, when it is
+     * null, in any other status than {@code target}) to {@code target} with one
+     * select and one conditional update per chunk.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse bulkTransition(Collection<Long> enrollmentIds, Status expected, Status target) {
+        List<Long> ids = enrollmentIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        List<Long> updated = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Map<Long, Object[]> rows = new HashMap<>();
+            for (Object[] row : enrollmentRepository.findStatusRowsByIds(chunk)) {
+                rows.put((Long) row[0], row);
+            }
+
+            List<Long> candidates = new ArrayList<>();
+            for (Long id : chunk) {
+                Object[] row = rows.get(id);
+                if (row == null) {
+                    notFound.add(id);
+                } else if (expected == null ? row[3] != target : row[3] == expected) {
+                    candidates.add(id);
+                } else {
+                    skipped.add(id);
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            int changed = enrollmentRepository.updateStatusWhereStatus(candidates, expected, target);
+            if (changed < candidates.size()) {
+                // A concurrent writer moved some rows between the select and the update; re-read to attribute them
+                Map<Long, Object> current = new HashMap<>();
+                enrollmentRepository.findStatusRowsByIds(candidates).forEach(row -> current.put((Long) row[0], row[3]));
+                List<Long> moved = new ArrayList<>();
+                for (Long id : candidates) {
+                    (current.get(id) == target ? moved : skipped).add(id);
+                }
+                candidates = moved;
+            }
+            for (Long id : candidates) {
+                Object[] row = rows.get(id);
+                eventPublisher.publishEvent(new EnrollmentStatusChangedEvent(id, (Long) row[1], (Long) row[2], (Status) row[3], target));
+            }
+            updated.addAll(candidates);
+        }
+
+        log.info("Bulk {} -> {}: {} updated, {} skipped, {} not found",
+                expected, target, updated.size(), skipped.size(), notFound.size());
+        return BulkStatusUpdateResponse.builder()
+                .updated(updated)
+                .skipped(skipped)
+                .notFound(notFound)
+                .build();
+    }
+
     @Transactional
     public void updateEnrollmentStatus(Long enrollmentId, Status newStatus) {
         CourseEnrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new AppException(ErrorCode.ENROLLMENT_NOT_FOUND));
+        Status previousStatus = enrollment.getStatus();
         enrollment.setStatus(newStatus);
         enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(EnrollmentStatusChangedEvent.of(enrollment, previousStatus));
         log.info("Enrollment {} status updated to {}", enrollmentId, newStatus);
     }
+
+    /**
+     * Maps a failed enrollment insert to an error by the violated constraint.
+     * Schemas created before the foreign keys were named carry generated names,
+     * so an unrecognized violation is reported as a generic error rather than
+     * guessed at.
+     */
+    private static ErrorCode enrollmentError(DataIntegrityViolationException e) {
+        // Dialect extractors do not always return the exact name, so the driver message is searched as well
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        String name = (constraint + " " + e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (name.contains(CourseEnrollment.USER_COURSE_CONSTRAINT)) {
+            return ErrorCode.ENROLLMENT_EXISTED;
+        }
+        if (name.contains(CourseEnrollment.COURSE_FOREIGN_KEY)) {
+            return ErrorCode.COURSE_NOT_FOUND;
+        }
+        if (name.contains(CourseEnrollment.USER_FOREIGN_KEY)) {
+            return ErrorCode.USER_NOT_FOUND;
+        }
+        log.warn("Unexpected integrity violation on enrollment insert: {}", e.getMostSpecificCause().getMessage());
+        return ErrorCode.UNCATEGORIZED_EXCEPTION;
+    }
 }
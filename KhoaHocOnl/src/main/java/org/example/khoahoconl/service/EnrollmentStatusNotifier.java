@@ -0,0 +1,123 @@
+package org.example.khoahoconl.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.event.EnrollmentStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes enrollment status changes to Server-Sent Events subscribers once the
+ * change has committed. Subscribers are kept in one map from (user, course) to
+ * a copy-on-write array of emitters; an idle subscription costs an emitter and
+ * an array slot, and holds no thread. Each subscription first receives the
+ * current status, so a client that reconnects after a timeout or a dropped
+ * connection never misses the final state.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class EnrollmentStatusNotifier {
+
+    static final String EVENT_NAME = "enrollment-status";
+    static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    record SubscriptionKey(Long userId, Long courseId) {
+    }
+
+    /**
+     * Serialises sends to one emitter so the initial status can never overtake
+     * a newer pushed one.
+     */
+    static final class Subscriber {
+        final SseEmitter emitter;
+
+        Subscriber(long timeoutMillis) {
+            emitter = new SseEmitter(timeoutMillis);
+            // Ends the response cleanly; EventSource clients reconnect and get the current status
+            emitter.onTimeout(emitter::complete);
+        }
+
+        synchronized void send(String status) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(status));
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the error callback unregisters it
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    EntitlementCache entitlementCache;
+    ConcurrentHashMap<SubscriptionKey, Subscriber[]> subscribers = new ConcurrentHashMap<>();
+    AtomicInteger subscriberCount = new AtomicInteger();
+    long timeoutMillis;
+
+    public EnrollmentStatusNotifier(EntitlementCache entitlementCache, MeterRegistry meterRegistry,
+            @Value("${enrollment.status.stream-timeout:PT15M}") Duration timeout) {
+        this.entitlementCache = entitlementCache;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("enrollment.status.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId, Long courseId) {
+        SubscriptionKey key = new SubscriptionKey(userId, courseId);
+        Subscriber subscriber = new Subscriber(timeoutMillis);
+        subscriber.emitter.onCompletion(() -> remove(key, subscriber));
+        subscriber.emitter.onError(e -> remove(key, subscriber));
+        subscribers.merge(key, new Subscriber[]{subscriber}, EnrollmentStatusNotifier::append);
+        subscriberCount.incrementAndGet();
+
+        // Registered before reading, so a change committing meanwhile is either seen here or pushed afterwards
+        synchronized (subscriber) {
+            Status status = entitlementCache.get(userId).status(courseId);
+            subscriber.send(status != null ? status.name() : "NOT_ENROLLED");
+        }
+        return subscriber.emitter;
+    }
+
+    // Runs after the entitlement cache listener, so a reconnect in between reads the new status too
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnrollmentStatusChanged(EnrollmentStatusChangedEvent event) {
+        Subscriber[] targets = subscribers.getOrDefault(
+                new SubscriptionKey(event.userId(), event.courseId()), NO_SUBSCRIBERS);
+        for (Subscriber subscriber : targets) {
+            subscriber.send(event.status().name());
+        }
+        if (targets.length > 0) {
+            log.debug("Pushed {} for user {} course {} to {} subscribers",
+                    event.status(), event.userId(), event.courseId(), targets.length);
+        }
+    }
+
+    private void remove(SubscriptionKey key, Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(key, (k, current) -> {
+            Subscriber[] remaining = Arrays.stream(current).filter(s -> s != subscriber).toArray(Subscriber[]::new);
+            removed[0] = remaining.length < current.length;
+            return remaining.length == 0 ? null : remaining;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static Subscriber[] append(Subscriber[] current, Subscriber[] added) {
+        Subscriber[] merged = Arrays.copyOf(current, current.length + added.length);
+        System.arraycopy(added, 0, merged, current.length, added.length);
+        return merged;
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.khoahoconl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.event.EnrollmentStatusChangedEvent;
+import org.example.khoahoconl.repository.CourseEnrollmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-user enrollment state held as sorted primitive arrays, so video masking,
+ * status checks and payment pre-checks are answered without SQL. A user's
+ * entry is loaded once from committed data and then patched in place by every
+ * committed {@link EnrollmentStatusChangedEvent}; entries still expire a fixed
+ * TTL after they were written, which bounds staleness from any write that
+ * bypasses the event. Loads always use the caller's own connection; a second
+ * pooled connection per request could exhaust the pool under concurrent
+ * misses for the same user.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class EntitlementCache {
+
+    static final Status[] STATUSES = Status.values();
+
+    CourseEnrollmentRepository enrollmentRepository;
+    Cache<Long, Entitlements> entitlements;
+
+    public EntitlementCache(CourseEnrollmentRepository enrollmentRepository, MeterRegistry meterRegistry,
+            @Value("${entitlement.cache.max-size:100000}") long maxSize,
+            @Value("${entitlement.cache.ttl:30m}") Duration ttl) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.entitlements = CourseCatalogCache.monitor(meterRegistry, "user.entitlements", Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * @return the user's entitlements, or {@link Entitlements#NONE} for anonymous callers
+     */
+    public Entitlements get(Long userId) {
+        if (userId == null) {
+            return Entitlements.NONE;
+        }
+        // Inside a read-write transaction a load could see the caller's uncommitted writes, so it is not cached
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Entitlements cached = entitlements.getIfPresent(userId);
+            return cached != null ? cached : load(userId);
+        }
+        return entitlements.get(userId, this::load);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnrollmentStatusChanged(EnrollmentStatusChangedEvent event) {
+        // Users not yet loaded will read the committed row on first access
+        entitlements.asMap().computeIfPresent(event.userId(),
+                (userId, current) -> current.with(event.courseId(), event.enrollmentId(), event.status()));
+        log.debug("Entitlements patched for user {} course {} -> {}", event.userId(), event.courseId(), event.status());
+    }
+
+    private Entitlements load(Long userId) {
+        List<Object[]> rows = enrollmentRepository.findEntitlementRowsByUserId(userId);
+        Entitlements loaded = Entitlements.NONE;
+        for (Object[] row : rows) {
+            loaded = loaded.with((Long) row[0], (Long) row[1], (Status) row[2]);
+        }
+        return loaded;
+    }
+
+    /**
+     * Immutable enrollment state of one user: parallel arrays keyed by course id
+     * in ascending order, plus a fingerprint of the approved course set.
+     */
+    public static final class Entitlements {
+
+        public static final Entitlements NONE = new Entitlements(new long[0], new long[0], new byte[0]);
+
+        final long[] courseIds;
+        final long[] enrollmentIds;
+        final byte[] statuses;
+        final long approvedFingerprint;
+
+        Entitlements(long[] courseIds, long[] enrollmentIds, byte[] statuses) {
+            this.courseIds = courseIds;
+            this.enrollmentIds = enrollmentIds;
+            this.statuses = statuses;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < courseIds.length; i++) {
+                if (STATUSES[statuses[i]] == Status.APPROVED) {
+                    hash = (hash ^ courseIds[i]) * 0x100000001b3L;
+                }
+            }
+            this.approvedFingerprint = hash;
+        }
+
+        public boolean isApproved(Long courseId) {
+            return status(courseId) == Status.APPROVED;
+        }
+
+        /**
+         * @return the enrollment status for the course, or null if the user never enrolled
+         */
+        public Status status(Long courseId) {
+            int i = courseId == null ? -1 : Arrays.binarySearch(courseIds, courseId);
+            return i < 0 ? null : STATUSES[statuses[i]];
+        }
+
+        /**
+         * @return the enrollment id for the course, or null if the user never enrolled
+         */
+        public Long enrollmentId(Long courseId) {
+            int i = courseId == null ? -1 : Arrays.binarySearch(courseIds, courseId);
+            return i < 0 ? null : enrollmentIds[i];
+        }
+
+        /**
+         * Changes whenever the set of approved courses changes; equal sets give equal values.
+         */
+        public long approvedFingerprint() {
+            return approvedFingerprint;
+        }
+
+        Entitlements with(long courseId, long enrollmentId, Status status) {
+            int i = Arrays.binarySearch(courseIds, courseId);
+            if (i >= 0) {
+                long[] nextEnrollmentIds = enrollmentIds.clone();
+                byte[] nextStatuses = statuses.clone();
+                nextEnrollmentIds[i] = enrollmentId;
+                nextStatuses[i] = (byte) status.ordinal();
+                return new Entitlements(courseIds, nextEnrollmentIds, nextStatuses);
+            }
+            int at = -i - 1;
+            int n = courseIds.length;
+            long[] nextCourseIds = new long[n + 1];
+            long[] nextEnrollmentIds = new long[n + 1];
+            byte[] nextStatuses = new byte[n + 1];
+            System.arraycopy(courseIds, 0, nextCourseIds, 0, at);
+            System.arraycopy(enrollmentIds, 0, nextEnrollmentIds, 0, at);
+            System.arraycopy(statuses, 0, nextStatuses, 0, at);
+            nextCourseIds[at] = courseId;
+            nextEnrollmentIds[at] = enrollmentId;
+            nextStatuses[at] = (byte) status.ordinal();
+            System.arraycopy(courseIds, at, nextCourseIds, at + 1, n - at);
+            System.arraycopy(enrollmentIds, at, nextEnrollmentIds, at + 1, n - at);
+            System.arraycopy(statuses, at, nextStatuses, at + 1, n - at);
+            return new Entitlements(nextCourseIds, nextEnrollmentIds, nextStatuses);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.khoahoconl.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.entity.IdGenerators;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves each {@link IdGenerators} row past the ids already in its table.
+ * These tables used IDENTITY before, so on an existing database a generator
+ * row is missing or behind the table's highest id. Runs once all singletons
+ * exist, before the web server accepts requests.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class IdGeneratorAligner implements SmartInitializingSingleton {
+
+    record Target(String generator, String table, String idColumn) {
+    }
+
+    static final List<Target> TARGETS = List.of(
+            new Target(IdGenerators.COURSE_ENROLLMENT, "course_enrollment", "course_enrollment_id"),
+            new Target(IdGenerators.COURSE_CURRICULUM, "course_curriculum", "id"),
+            new Target(IdGenerators.CURRICULUM_LESSON, "curriculum_lesson", "id"),
+            new Target(IdGenerators.COURSE_LEARNING_OBJECTIVE, "course_learning_objectives", "id"),
+            new Target(IdGenerators.COURSE_PREREQUISITE, "course_prerequisites", "id"));
+
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+
+    public IdGeneratorAligner(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager) {
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TARGETS.forEach(target -> transactionTemplate.executeWithoutResult(tx -> align(target)));
+    }
+
+    private void align(Target target) {
+        long maxId = ((Number) entityManager
+                .createNativeQuery("select coalesce(max(" + target.idColumn() + "), 0) from " + target.table())
+                .getSingleResult()).longValue();
+        // Past the highest id whether the optimizer treats the stored value as the next id or the pool's upper bound
+        long floor = maxId + IdGenerators.ALLOCATION_SIZE + 1;
+
+        List<?> current = entityManager
+                .createNativeQuery("select " + IdGenerators.VALUE_COLUMN + " from " + IdGenerators.TABLE
+                        + " where " + IdGenerators.PK_COLUMN + " = :name for update")
+                .setParameter("name", target.generator())
+                .getResultList();
+        if (current.isEmpty()) {
+            entityManager.createNativeQuery("insert into " + IdGenerators.TABLE
+                            + " (" + IdGenerators.PK_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") values (:name, :value)")
+                    .setParameter("name", target.generator())
+                    .setParameter("value", maxId == 0 ? 1 : floor)
+                    .executeUpdate();
+        } else if (maxId > 0 && ((Number) current.get(0)).longValue() < floor) {
+            entityManager.createNativeQuery("update " + IdGenerators.TABLE + " set " + IdGenerators.VALUE_COLUMN
+                            + " = :value where " + IdGenerators.PK_COLUMN + " = :name")
+                    .setParameter("name", target.generator())
+                    .setParameter("value", floor)
+                    .executeUpdate();
+            log.info("Id generator {} aligned to start after {}", target.generator(), maxId);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.khoahoconl.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.response.LearningPathEnrollmentResponse;
+import org.example.khoahoconl.dto.response.PaymentResponse;
+import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.entity.LearningPath;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.repository.LearningPathCourseRepository;
+import org.example.khoahoconl.repository.LearningPathRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class LearningPathService {
+
+    LearningPathRepository learningPathRepository;
+    LearningPathCourseRepository learningPathCourseRepository;
+    EnrollmentService enrollmentService;
+    PaymentService paymentService;
+    CourseService courseService;
+    EntitlementCache entitlementCache;
+
+    /**
+     * Enrolls the user in every course of the path they are not already
+     * enrolled in, as PENDING rows created in one transaction.
+     */
+    @Transactional
+    public LearningPathEnrollmentResponse enrollInPath(Long userId, Long pathId) {
+        LearningPath path = findActivePath(pathId);
+
+        EntitlementCache.Entitlements entitlements = entitlementCache.get(userId);
+        List<Long> toEnroll = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (Long courseId : learningPathCourseRepository.findCourseIdsByPathId(pathId)) {
+            if (entitlements.status(courseId) != null) {
+                skipped.add(courseId);
+            } else if (!toEnroll.contains(courseId)) {
+                toEnroll.add(courseId);
+            }
+        }
+
+        List<CourseEnrollment> enrollments = toEnroll.isEmpty()
+                ? List.of()
+                : enrollmentService.enrollCourses(userId, toEnroll);
+        log.info("User {} enrolled in learning path {}: {} new, {} skipped", userId, pathId, enrollments.size(), skipped.size());
+
+        return LearningPathEnrollmentResponse.builder()
+                .pathId(path.getPathId())
+                .title(path.getTitle())
+                .bundlePrice(path.getBundlePrice())
+                .originalPrice(path.getOriginalPrice())
+                .discountPercentage(path.getDiscountPercentage())
+                .enrollmentIds(enrollments.stream().map(CourseEnrollment::getCourseEnrollmentId).toList())
+                .enrolledCourseIds(toEnroll)
+                .skippedCourseIds(skipped)
+                .build();
+    }
+
+    /**
+     * Starts one payment for every course of the path the user has enrolled in
+     * but not paid for. When none of the path is paid yet the charge is the
+     * bundle price; otherwise the remaining courses cost their price less the
+     * path's discount. The charge is split across the enrollments in
+     * proportion to course price, with the rounding remainder on the last one.
+     */
+    @Transactional
+    public PaymentResponse initiateBundlePayment(Long userId, Long pathId) {
+        LearningPath path = findActivePath(pathId);
+        List<Long> courseIds = learningPathCourseRepository.findCourseIdsByPathId(pathId).stream().distinct().toList();
+
+        EntitlementCache.Entitlements entitlements = entitlementCache.get(userId);
+        Map<Long, Long> unpaid = new LinkedHashMap<>();
+        for (Long courseId : courseIds) {
+            Status status = entitlements.status(courseId);
+            if (status == null) {
+                // Enrolling first keeps enrollment rules in one place
+                throw new AppException(ErrorCode.ENROLLMENT_NOT_FOUND);
+            }
+            if (status != Status.APPROVED) {
+                unpaid.put(courseId, entitlements.enrollmentId(courseId));
+            }
+        }
+        if (unpaid.isEmpty()) {
+            throw new AppException(ErrorCode.ALREADY_PAID);
+        }
+
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        unpaid.keySet().forEach(courseId -> prices.put(courseId,
+                Objects.requireNonNullElse(courseService.getCourse(courseId).getPrice(), BigDecimal.ZERO)));
+        BigDecimal listPrice = prices.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = unpaid.size() == courseIds.size() && path.getBundlePrice() != null
+                ? path.getBundlePrice()
+                : discounted(listPrice, path.getDiscountPercentage());
+
+        List<BigDecimal> shares = allocate(total, List.copyOf(prices.values()));
+        List<PaymentService.BundleLine> lines = new ArrayList<>(unpaid.size());
+        for (Map.Entry<Long, Long> course : unpaid.entrySet()) {
+            lines.add(new PaymentService.BundleLine(course.getValue(), course.getKey(), shares.get(lines.size())));
+        }
+        log.info("User {} paying for learning path {}: {} courses, {} of {}", userId, pathId, lines.size(), total, listPrice);
+        return paymentService.processBundlePayment(lines);
+    }
+
+    /**
+     * Splits the total over the courses in proportion to their list prices,
+     * each share rounded down to the cent. The last share takes the
+     * remainder, so the shares always add up to exactly the total.
+     */
+    static List<BigDecimal> allocate(BigDecimal total, List<BigDecimal> prices) {
+        BigDecimal listPrice = prices.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<BigDecimal> shares = new ArrayList<>(prices.size());
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < prices.size(); i++) {
+            BigDecimal share = i == prices.size() - 1 ? total.subtract(allocated)
+                    : listPrice.signum() == 0 ? BigDecimal.ZERO
+                    : total.multiply(prices.get(i)).divide(listPrice, 2, RoundingMode.DOWN);
+            allocated = allocated.add(share);
+            shares.add(share);
+        }
+        return shares;
+    }
+
+    private LearningPath findActivePath(Long pathId) {
+        return learningPathRepository.findById(pathId)
+                .filter(p -> !Boolean.FALSE.equals(p.getIsActive()))
+                .orElseThrow(() -> new AppException(ErrorCode.LEARNING_PATH_NOT_FOUND));
+    }
+
+    private static BigDecimal discounted(BigDecimal price, Integer discountPercentage) {
+        if (discountPercentage == null || discountPercentage <= 0) {
+            return price;
+        }
+        return price.multiply(BigDecimal.valueOf(100L - Math.min(discountPercentage, 100)))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.khoahoconl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.example.khoahoconl.entity.PaymentTransaction;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.repository.PaymentTransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders payment QR codes in-process. The payload of a transaction never
+ * changes, so each rendered image is cached by transaction id and format in a
+ * cache bounded by total bytes, and can be served with immutable cache headers.
+ * <p>
+ * Transaction ids are time-ordered and easy to guess, while the image route is
+ * public so an {@code <img>} can load it. Each URL therefore carries an HMAC of
+ * its transaction id, and an image is rendered only when the signature matches.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PaymentQrCodeService {
+
+    public enum Format {
+        PNG(MediaType.IMAGE_PNG),
+        SVG(MediaType.valueOf("image/svg+xml"));
+
+        final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String value) {
+            return "svg".equalsIgnoreCase(value) ? SVG : PNG;
+        }
+    }
+
+    record QrKey(String transactionId, Format format) {
+    }
+
+    // Light modules around the symbol required by the QR spec
+    static final int QUIET_ZONE = 4;
+    static final Map<EncodeHintType, Object> HINTS = Map.of(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+    static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    // 128 bits of the MAC keep the URL short and are still far beyond guessing
+    static final int SIGNATURE_BYTES = 16;
+
+    PaymentTransactionRepository paymentTransactionRepository;
+    Cache<QrKey, byte[]> images;
+    SecretKeySpec signingKey;
+    int moduleSize;
+
+    public PaymentQrCodeService(PaymentTransactionRepository paymentTransactionRepository, MeterRegistry meterRegistry,
+            @Value("${payment.qr.secret:${jwt.secret}}") String secret,
+            @Value("${payment.qr.module-size:8}") int moduleSize,
+            @Value("${payment.qr.cache.max-bytes:33554432}") long maxBytes,
+            @Value("${payment.qr.cache.ttl:24h}") Duration ttl) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+        this.moduleSize = Math.max(1, moduleSize);
+        this.images = CourseCatalogCache.monitor(meterRegistry, "payment.qr", Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((QrKey key, byte[] image) -> image.length)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .<QrKey, byte[]>build());
+    }
+
+    /**
+     * The signature that must accompany a transaction id in its QR URL.
+     */
+    public String sign(String transactionId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(transactionId));
+    }
+
+    /**
+     * Renders the QR code of a transaction. A wrong signature is reported like
+     * an unknown transaction, so probing ids reveals nothing.
+     */
+    public byte[] render(String transactionId, String signature, Format format) {
+        if (!verify(transactionId, signature)) {
+            throw new AppException(ErrorCode.PAYMENT_NOT_FOUND);
+        }
+        return images.get(new QrKey(transactionId, format), key -> {
+            ByteMatrix matrix = encode(payload(key.transactionId()));
+            return key.format() == Format.SVG ? toSvg(matrix) : toPng(matrix);
+        });
+    }
+
+    private boolean verify(String transactionId, String signature) {
+        byte[] presented;
+        try {
+            presented = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // Constant-time comparison, so response timing does not leak the expected signature
+        return MessageDigest.isEqual(mac(transactionId), presented);
+    }
+
+    private byte[] mac(String transactionId) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(signingKey);
+            return Arrays.copyOf(mac.doFinal(transactionId.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is unavailable", e);
+        }
+    }
+
+    private String payload(String transactionId) {
+        if (TransactionIdGenerator.isBundleTransactionId(transactionId)) {
+            List<PaymentTransaction> rows = paymentTransactionRepository.findByBundleTransactionId(transactionId);
+            if (rows.isEmpty()) {
+                throw new AppException(ErrorCode.PAYMENT_NOT_FOUND);
+            }
+            return bundlePayload(transactionId, rows);
+        }
+        return payload(paymentTransactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new AppException(ErrorCode.PAYMENT_NOT_FOUND)));
+    }
+
+    static String bundlePayload(String bundleTransactionId, List<PaymentTransaction> rows) {
+        BigDecimal amount = rows.stream()
+                .map(row -> row.getAmount() == null ? BigDecimal.ZERO : row.getAmount())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return "KHOAHOCONL|" + bundleTransactionId
+                + "|ENROLLMENTS:" + rows.size()
+                + "|AMOUNT:" + amount.toPlainString();
+    }
+
+    static String payload(PaymentTransaction transaction) {
+        return "KHOAHOCONL|" + transaction.getTransactionId()
+                + "|ENROLLMENT:" + transaction.getCourseEnrollmentId()
+                + "|AMOUNT:" + (transaction.getAmount() == null ? "0" : transaction.getAmount().toPlainString());
+    }
+
+    private static ByteMatrix encode(String payload) {
+        try {
+            // Module matrix only; scaling and the quiet zone are applied per output format
+            QRCode code = Encoder.encode(payload, ErrorCorrectionLevel.M, HINTS);
+            return code.getMatrix();
+        } catch (WriterException e) {
+            throw new IllegalStateException("Payment payload does not fit in a QR code", e);
+        }
+    }
+
+    private byte[] toPng(ByteMatrix matrix) {
+        int modules = matrix.getWidth() + 2 * QUIET_ZONE;
+        int side = modules * moduleSize;
+        // 1-bit image: the PNG stays a few hundred bytes regardless of module size
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = image.getRaster();
+        int[] light = new int[side * side];
+        Arrays.fill(light, 1);
+        raster.setPixels(0, 0, side, side, light);
+        int[] dark = new int[moduleSize * moduleSize];
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                if (matrix.get(x, y) == 1) {
+                    raster.setPixels((x + QUIET_ZONE) * moduleSize, (y + QUIET_ZONE) * moduleSize,
+                            moduleSize, moduleSize, dark);
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] toSvg(ByteMatrix matrix) {
+        int modules = matrix.getWidth() + 2 * QUIET_ZONE;
+        StringBuilder path = new StringBuilder(matrix.getWidth() * matrix.getHeight());
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            int x = 0;
+            while (x < matrix.getWidth()) {
+                if (matrix.get(x, y) != 1) {
+                    x++;
+                    continue;
+                }
+                // One horizontal run of dark modules per path segment
+                int start = x;
+                while (x < matrix.getWidth() && matrix.get(x, y) == 1) {
+                    x++;
+                }
+                path.append('M').append(start + QUIET_ZONE).append(' ').append(y + QUIET_ZONE)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + modules + " " + modules
+                + "\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+}
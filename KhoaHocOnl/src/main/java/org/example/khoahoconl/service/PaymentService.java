@@ -6,12 +6,22 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.example.khoahoconl.dto.response.PaymentResponse;
 import org.example.khoahoconl.entity.CourseEnrollment;
+import org.example.khoahoconl.entity.PaymentTransaction;
 import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.event.EnrollmentStatusChangedEvent;
 import org.example.khoahoconl.exception.AppException;
 import org.example.khoahoconl.exception.ErrorCode;
 import org.example.khoahoconl.repository.CourseEnrollmentRepository;
+import org.example.khoahoconl.repository.PaymentTransactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -20,24 +30,90 @@ import org.springframework.transaction.annotation.Transactional;
 public class PaymentService {
 
     CourseEnrollmentRepository enrollmentRepository;
+    PaymentTransactionRepository paymentTransactionRepository;
+    TransactionIdGenerator transactionIdGenerator;
+    PaymentQrCodeService paymentQrCodeService;
+    CourseService courseService;
+    EntitlementCache entitlementCache;
+    ApplicationEventPublisher eventPublisher;
 
     public PaymentResponse processPayment(Long userId, Long courseId) {
-        CourseEnrollment enrollment = enrollmentRepository
-                .findByUser_UserIdAndCourse_CourseId(userId, courseId)
-                .orElseThrow(() -> new AppException(ErrorCode.ENROLLMENT_NOT_FOUND));
-
-        if (enrollment.getStatus() == Status.APPROVED) {
+        EntitlementCache.Entitlements entitlements = entitlementCache.get(userId);
+        if (entitlements.isApproved(courseId)) {
             throw new AppException(ErrorCode.ALREADY_PAID);
         }
 
-        String transactionId = generateTransactionId(enrollment.getCourseEnrollmentId());
-        String paymentQRCodeUrl = generateQRCodeUrl(transactionId);
+        // An enrollment made earlier in the caller's own transaction is not committed yet, so read it directly
+        Long enrollmentId = entitlements.enrollmentId(courseId);
+        if (enrollmentId == null) {
+            CourseEnrollment enrollment = enrollmentRepository
+                    .findByUser_UserIdAndCourse_CourseId(userId, courseId)
+                    .orElseThrow(() -> new AppException(ErrorCode.ENROLLMENT_NOT_FOUND));
+            if (enrollment.getStatus() == Status.APPROVED) {
+                throw new AppException(ErrorCode.ALREADY_PAID);
+            }
+            enrollmentId = enrollment.getCourseEnrollmentId();
+        }
 
-        log.info("Payment initiated for enrollment {}", enrollment.getCourseEnrollmentId());
+        // The price comes from the catalog cache; the ledger row is a single insert with an assigned key
+        BigDecimal amount = courseService.getCourse(courseId).getPrice();
+        long id = transactionIdGenerator.nextId();
+        PaymentTransaction transaction = paymentTransactionRepository.save(PaymentTransaction.builder()
+                .paymentTransactionId(id)
+                .transactionId(TransactionIdGenerator.transactionId(id))
+                .courseEnrollmentId(enrollmentId)
+                .courseId(courseId)
+                .amount(amount)
+                .status(Status.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build());
+        String paymentQRCodeUrl = generateQRCodeUrl(transaction.getTransactionId());
+
+        log.info("Payment {} initiated for enrollment {}", transaction.getTransactionId(), enrollmentId);
 
         return PaymentResponse.builder()
                 .paymentQRCodeUrl(paymentQRCodeUrl)
                 .message("Vui lòng quét mã QR để thanh toán. Giao dịch đang chờ xác nhận.")
+                .transactionId(transaction.getTransactionId())
+                .amount(amount)
+                .build();
+    }
+
+    /**
+     * Records one PENDING ledger row per enrollment, all under a single bundle
+     * transaction id for the gateway to charge. The webhook for that id settles
+     * every row; see {@link PaymentWebhookInbox}.
+     */
+    @Transactional
+    public PaymentResponse processBundlePayment(List<BundleLine> lines) {
+        String bundleTransactionId = TransactionIdGenerator.bundleTransactionId(transactionIdGenerator.nextId());
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentTransaction> rows = new ArrayList<>(lines.size());
+        BigDecimal amount = BigDecimal.ZERO;
+        for (BundleLine line : lines) {
+            long id = transactionIdGenerator.nextId();
+            rows.add(PaymentTransaction.builder()
+                    .paymentTransactionId(id)
+                    .transactionId(TransactionIdGenerator.transactionId(id))
+                    .bundleTransactionId(bundleTransactionId)
+                    .courseEnrollmentId(line.enrollmentId())
+                    .courseId(line.courseId())
+                    .amount(line.amount())
+                    .status(Status.PENDING)
+                    .createdAt(now)
+                    .build());
+            amount = amount.add(line.amount());
+        }
+        paymentTransactionRepository.saveAll(rows);
+
+        log.info("Bundle payment {} initiated for {} enrollments", bundleTransactionId, rows.size());
+
+        return PaymentResponse.builder()
+                .paymentQRCodeUrl(generateQRCodeUrl(bundleTransactionId))
+                .message("Vui lòng quét mã QR để thanh toán combo " + rows.size()
+                        + " khóa học. Giao dịch đang chờ xác nhận.")
+                .transactionId(bundleTransactionId)
+                .amount(amount)
                 .build();
     }
 
@@ -50,29 +126,27 @@ public class PaymentService {
             return "Payment already completed for enrollment ID: " + enrollmentId;
         }
 
+        Status previousStatus = enrollment.getStatus();
         enrollment.setStatus(Status.APPROVED);
         enrollmentRepository.save(enrollment);
+        paymentTransactionRepository.settlePendingByEnrollmentId(enrollmentId, Status.APPROVED, LocalDateTime.now());
+        eventPublisher.publishEvent(EnrollmentStatusChangedEvent.of(enrollment, previousStatus));
 
         log.info("Payment simulation successful for enrollment {}", enrollmentId);
         return "Payment simulation successful! Enrollment ID: " + enrollmentId + " is now APPROVED";
     }
 
-    @Transactional
-    public void handleWebhookPayment(Long enrollmentId, String transactionId, Status newStatus) {
-        CourseEnrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new AppException(ErrorCode.ENROLLMENT_NOT_FOUND));
-
-        enrollment.setStatus(newStatus);
-        enrollmentRepository.save(enrollment);
-
-        log.info("Webhook payment processed for enrollment {} with status {}", enrollmentId, newStatus);
-    }
-
-    private String generateTransactionId(Long enrollmentId) {
-        return "TXN-" + enrollmentId + "-" + System.currentTimeMillis();
+    /**
+     * The part of a bundle charge allocated to one enrollment.
+     */
+    public record BundleLine(Long enrollmentId, Long courseId, BigDecimal amount) {
     }
 
+    // Rendered by PaymentQrCodeService; absolute so the frontend can use it from its own origin, signed so it cannot be guessed
     private String generateQRCodeUrl(String transactionId) {
-        return "https://placehold.co/400x400/E9E9E9/000000?text=Scan+to+Pay\nID: " + transactionId;
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/payment/qr/{transactionId}/{signature}")
+                .buildAndExpand(transactionId, paymentQrCodeService.sign(transactionId))
+                .toUriString();
     }
 }
@@ -0,0 +1,237 @@
+package org.example.khoahoconl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.khoahoconl.dto.request.WebhookRequest;
+import org.example.khoahoconl.dto.response.BulkStatusUpdateResponse;
+import org.example.khoahoconl.entity.PaymentTransaction;
+import org.example.khoahoconl.entity.PaymentWebhookEvent;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.repository.PaymentTransactionRepository;
+import org.example.khoahoconl.repository.PaymentWebhookEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment webhook ingestion. A delivery that carries all required fields is
+ * written to the durable inbox table (whose unique transaction id absorbs
+ * gateway retries) and put on a bounded queue, after which the gateway is
+ * acknowledged. A consumer on its own thread drains the queue in batches, so
+ * the short drain interval never waits behind jobs on the shared scheduler;
+ * it keeps only the latest delivery per enrollment and applies status changes
+ * with bulk updates. Rows that never reached the queue, because it was full
+ * or the node restarted, are picked up from the table by a periodic recovery
+ * sweep.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PaymentWebhookInbox {
+
+    PaymentWebhookEventRepository inboxRepository;
+    PaymentTransactionRepository paymentTransactionRepository;
+    EnrollmentService enrollmentService;
+    TransactionTemplate transactionTemplate;
+    BlockingQueue<PaymentWebhookEvent> queue;
+    // Short-circuits retry storms before they reach the database
+    Cache<String, Boolean> recentTransactions;
+    int batchSize;
+    Duration drainInterval;
+    Duration recoveryInterval;
+    ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("payment-webhook-drain-"));
+
+    public PaymentWebhookInbox(PaymentWebhookEventRepository inboxRepository,
+            PaymentTransactionRepository paymentTransactionRepository, EnrollmentService enrollmentService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${payment.webhook.queue-capacity:10000}") int queueCapacity,
+            @Value("${payment.webhook.batch-size:500}") int batchSize,
+            @Value("${payment.webhook.drain-interval:PT0.2S}") Duration drainInterval,
+            @Value("${payment.webhook.recovery-interval:PT1M}") Duration recoveryInterval) {
+        this.inboxRepository = inboxRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.enrollmentService = enrollmentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.recentTransactions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+        this.batchSize = Math.max(1, batchSize);
+        this.drainInterval = drainInterval;
+        this.recoveryInterval = recoveryInterval;
+        Gauge.builder("payment.webhook.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * The transaction id must be in the ledger, and the enrollment to settle is
+     * taken from the ledger row; the request's enrollment id is not trusted. A
+     * bundle transaction id is recorded as one inbox row per ledger row of the
+     * bundle, keyed by that row's own transaction id, so retries and partial
+     * writes are absorbed the same way.
+     *
+     * @return false if this transaction id was already accepted
+     * @throws AppException with {@link ErrorCode#PAYMENT_NOT_FOUND} for an unknown transaction id
+     */
+    public boolean accept(WebhookRequest request) {
+        if (request.getStatus() == null || request.getTransactionId() == null || request.getTransactionId().isBlank()) {
+            throw new AppException(ErrorCode.INVALID_WEBHOOK);
+        }
+        String transactionId = request.getTransactionId().trim();
+        if (recentTransactions.getIfPresent(transactionId) != null) {
+            return false;
+        }
+
+        List<PaymentTransaction> rows = TransactionIdGenerator.isBundleTransactionId(transactionId)
+                ? paymentTransactionRepository.findByBundleTransactionId(transactionId)
+                : paymentTransactionRepository.findByTransactionId(transactionId).stream().toList();
+        if (rows.isEmpty()) {
+            throw new AppException(ErrorCode.PAYMENT_NOT_FOUND);
+        }
+        boolean accepted = false;
+        for (PaymentTransaction row : rows) {
+            accepted |= record(row.getTransactionId(), row.getCourseEnrollmentId(), request.getStatus());
+        }
+        recentTransactions.put(transactionId, Boolean.TRUE);
+        return accepted;
+    }
+
+    private boolean record(String transactionId, Long courseEnrollmentId, Status status) {
+        PaymentWebhookEvent event = PaymentWebhookEvent.builder()
+                .transactionId(transactionId)
+                .courseEnrollmentId(courseEnrollmentId)
+                .status(status)
+                .receivedAt(LocalDateTime.now())
+                .build();
+        try {
+            event = inboxRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause == null || !cause.toLowerCase().contains(PaymentWebhookEvent.TRANSACTION_CONSTRAINT)) {
+                throw e;
+            }
+            return false;
+        }
+
+        if (!queue.offer(event)) {
+            log.warn("Webhook queue full; transaction {} left for the recovery sweep", transactionId);
+        }
+        return true;
+    }
+
+    @PostConstruct
+    void startDrain() {
+        long delay = drainInterval.toMillis();
+        drainer.scheduleWithFixedDelay(this::drain, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopDrain() throws InterruptedException {
+        // Whatever is still queued is already in the inbox table and is recovered on the next start
+        drainer.shutdown();
+        drainer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    void drain() {
+        List<PaymentWebhookEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            applySafely(batch);
+            batch.clear();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${payment.webhook.recovery-interval:PT1M}",
+            fixedDelayString = "${payment.webhook.recovery-interval:PT1M}")
+    public void recover() {
+        // Anything the queue still holds is younger than one interval, so only older rows are swept
+        LocalDateTime cutoff = LocalDateTime.now().minus(recoveryInterval);
+        List<PaymentWebhookEvent> batch;
+        do {
+            batch = inboxRepository.findByProcessedAtIsNullAndReceivedAtBeforeOrderByIdAsc(cutoff, Limit.of(batchSize));
+            if (!batch.isEmpty()) {
+                log.info("Recovering {} unprocessed payment webhooks", batch.size());
+                if (!applySafely(batch)) {
+                    return;
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private boolean applySafely(List<PaymentWebhookEvent> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> apply(batch));
+            return true;
+        } catch (RuntimeException e) {
+            // The rows stay unprocessed in the inbox and are retried by the recovery sweep
+            log.error("Failed to apply {} payment webhooks", batch.size(), e);
+            return false;
+        }
+    }
+
+    private void apply(List<PaymentWebhookEvent> batch) {
+        Map<Long, PaymentWebhookEvent> byId = new HashMap<>();
+        batch.forEach(event -> byId.put(event.getId(), event));
+        List<Long> pending = inboxRepository.findUnprocessedIds(byId.keySet());
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Deliveries are applied in arrival order, so only the latest one per enrollment matters
+        Map<Long, PaymentWebhookEvent> latest = new LinkedHashMap<>();
+        pending.stream().sorted().map(byId::get)
+                .forEach(event -> latest.put(event.getCourseEnrollmentId(), event));
+        Map<Status, List<Long>> byTarget = new EnumMap<>(Status.class);
+        latest.values().forEach(event -> byTarget
+                .computeIfAbsent(event.getStatus(), status -> new ArrayList<>())
+                .add(event.getCourseEnrollmentId()));
+
+        byTarget.forEach((target, enrollmentIds) -> {
+            BulkStatusUpdateResponse result = enrollmentService.bulkTransition(enrollmentIds, null, target);
+            if (!result.getNotFound().isEmpty()) {
+                log.warn("Payment webhooks for unknown enrollments {} ignored", result.getNotFound());
+            }
+        });
+
+        // Every delivery settles its own ledger row; transaction ids are unique in the inbox
+        Map<Status, List<String>> transactionsByStatus = new EnumMap<>(Status.class);
+        pending.forEach(id -> {
+            PaymentWebhookEvent event = byId.get(id);
+            transactionsByStatus.computeIfAbsent(event.getStatus(), status -> new ArrayList<>())
+                    .add(event.getTransactionId());
+        });
+        LocalDateTime now = LocalDateTime.now();
+        transactionsByStatus.forEach((status, transactionIds) ->
+                paymentTransactionRepository.updateStatusByTransactionIds(transactionIds, status, now));
+        inboxRepository.markProcessed(pending, now);
+        log.info("Applied {} payment webhooks to {} enrollments", pending.size(), latest.size());
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.khoahoconl.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Directed course to prerequisite graph used by the import to find cycles.
+ * Cycles are reported as strongly connected components (Tarjan), computed
+ * iteratively so long prerequisite chains cannot overflow the stack.
+ */
+final class PrerequisiteGraph {
+
+    private final Map<Long, Set<Long>> edges = new HashMap<>();
+
+    void add(Long course, Long prerequisite) {
+        edges.computeIfAbsent(course, id -> new LinkedHashSet<>()).add(prerequisite);
+    }
+
+    /**
+     * @return the courses of every cycle, each list in ascending order: a
+     * component of two or more courses, or a course that requires itself
+     */
+    List<List<Long>> cycles() {
+        Map<Long, Integer> index = new HashMap<>();
+        Map<Long, Integer> low = new HashMap<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        Set<Long> onStack = new HashSet<>();
+        List<List<Long>> cycles = new ArrayList<>();
+
+        for (Long root : edges.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            Deque<Map.Entry<Long, Iterator<Long>>> path = new ArrayDeque<>();
+            visit(root, index, low, stack, onStack, path);
+            while (!path.isEmpty()) {
+                Map.Entry<Long, Iterator<Long>> frame = path.peek();
+                Long node = frame.getKey();
+                if (frame.getValue().hasNext()) {
+                    Long next = frame.getValue().next();
+                    if (!index.containsKey(next)) {
+                        visit(next, index, low, stack, onStack, path);
+                    } else if (onStack.contains(next)) {
+                        low.put(node, Math.min(low.get(node), index.get(next)));
+                    }
+                    continue;
+                }
+
+                path.pop();
+                if (!path.isEmpty()) {
+                    Long parent = path.peek().getKey();
+                    low.put(parent, Math.min(low.get(parent), low.get(node)));
+                }
+                if (low.get(node).equals(index.get(node))) {
+                    List<Long> component = new ArrayList<>();
+                    Long member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    if (component.size() > 1 || edges.getOrDefault(node, Set.of()).contains(node)) {
+                        Collections.sort(component);
+                        cycles.add(component);
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private void visit(Long node, Map<Long, Integer> index, Map<Long, Integer> low, Deque<Long> stack,
+            Set<Long> onStack, Deque<Map.Entry<Long, Iterator<Long>>> path) {
+        int order = index.size();
+        index.put(node, order);
+        low.put(node, order);
+        stack.push(node);
+        onStack.add(node);
+        path.push(Map.entry(node, edges.getOrDefault(node, Set.of()).iterator()));
+    }
+}
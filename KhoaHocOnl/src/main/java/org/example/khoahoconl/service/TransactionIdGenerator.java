@@ -0,0 +1,71 @@
+package org.example.khoahoconl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 63-bit ids in the Snowflake layout: 41 bits of milliseconds
+ * since {@link #EPOCH_MILLIS}, 10 bits of node id and a 12-bit per-millisecond
+ * sequence. Generation is a single CAS on one {@link AtomicLong}, so callers
+ * never block. If the clock steps backwards or a millisecond's sequence is
+ * exhausted, the generator keeps counting from its last timestamp rather than
+ * waiting, which keeps ids unique and increasing per node.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    static final String BUNDLE_PREFIX = "BDL-";
+
+    private final long nodeBits;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${payment.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("payment.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            // Within the same millisecond (or behind it) take the next sequence; the carry rolls into the timestamp
+            next = now > previous ? now : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Gateway-facing transaction id for a ledger key taken from {@link #nextId()};
+     * deriving it from the key keeps the two from ever disagreeing.
+     */
+    public static String transactionId(long id) {
+        return "TXN-" + id;
+    }
+
+    /**
+     * Gateway-facing id of a payment that covers several ledger rows; the
+     * distinct prefix lets webhooks be routed without a lookup.
+     */
+    public static String bundleTransactionId(long id) {
+        return BUNDLE_PREFIX + id;
+    }
+
+    public static boolean isBundleTransactionId(String transactionId) {
+        return transactionId.startsWith(BUNDLE_PREFIX);
+    }
+}
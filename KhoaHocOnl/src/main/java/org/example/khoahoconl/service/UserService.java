@@ -17,13 +17,13 @@ import org.example.khoahoconl.mapper.CourseMapper;
 import org.example.khoahoconl.mapper.UserMapper;
 import org.example.khoahoconl.repository.CourseEnrollmentRepository;
 import org.example.khoahoconl.repository.UserRepository;
+import org.example.khoahoconl.security.JwtPrincipal;
 import org.example.khoahoconl.security.JwtTokenProvider;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -83,22 +83,15 @@ public class UserService {
         }
     }
 
-    public Long getUserIdByUsername(String username) {
-        return userRepository.findByUserName(username)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND))
-                .getUserId();
-    }
-
-    public UserResponse getMyInfo(String username) {
-        User user = userRepository.findByUserName(username)
+    public UserResponse getMyInfo(Long userId) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         return userMapper.toUserResponse(user);
     }
 
     public UserResponse updateUser(UserUpdateRequest request) {
-        var context = SecurityContextHolder.getContext();
-        String currentUsername = context.getAuthentication().getName();
-        User user = userRepository.findByUserName(currentUsername)
+        // The id comes from the token, so no lookup by name is needed
+        User user = userRepository.findById(JwtPrincipal.currentUserId())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         userMapper.updateUser(user, request);
         User updatedUser = userRepository.save(user);
@@ -0,0 +1,95 @@
+package org.example.khoahoconl.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.khoahoconl.dto.response.EnhancedCourseResponse;
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.entity.CourseCurriculum;
+import org.example.khoahoconl.entity.CourseLearningObjective;
+import org.example.khoahoconl.entity.CurriculumLesson;
+import org.example.khoahoconl.entity.User;
+import org.example.khoahoconl.enums.Role;
+import org.example.khoahoconl.mapper.UserMapperImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CourseDetailLoader.class, UserMapperImpl.class})
+class CourseDetailLoaderTest {
+
+    @Autowired
+    CourseDetailLoader courseDetailLoader;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotGrowWithChapters() {
+        User creator = entityManager.persist(User.builder().userName("teacher").password("x").role(Role.ADMIN).build());
+        Long small = persistCourse(creator, 1);
+        Long large = persistCourse(creator, 12);
+
+        long smallStatements = statementsToLoad(small, 1);
+        long largeStatements = statementsToLoad(large, 12);
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    private long statementsToLoad(Long courseId, int chapters) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EnhancedCourseResponse details = courseDetailLoader.load(courseId);
+
+        assertThat(details.getCurriculum()).hasSize(chapters);
+        assertThat(details.getCurriculum()).allSatisfy(chapter -> assertThat(chapter.getLessons()).hasSize(3));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long persistCourse(User creator, int chapters) {
+        Course course = entityManager.persist(Course.builder()
+                .courseTitle("Course with " + chapters + " chapters")
+                .price(BigDecimal.TEN)
+                .createBy(creator)
+                .build());
+        CourseLearningObjective objective = new CourseLearningObjective();
+        objective.setCourse(course);
+        objective.setObjective("objective");
+        objective.setDisplayOrder(1);
+        entityManager.persist(objective);
+
+        for (int c = 1; c <= chapters; c++) {
+            CourseCurriculum chapter = entityManager.persist(CourseCurriculum.builder()
+                    .course(course)
+                    .chapterTitle("Chapter " + c)
+                    .displayOrder(c)
+                    .build());
+            for (int l = 1; l <= 3; l++) {
+                entityManager.persist(CurriculumLesson.builder()
+                        .curriculum(chapter)
+                        .lessonTitle("Lesson " + c + "." + l)
+                        .displayOrder(l)
+                        .isFreePreview(false)
+                        .build());
+            }
+        }
+        return course.getCourseId();
+    }
+}
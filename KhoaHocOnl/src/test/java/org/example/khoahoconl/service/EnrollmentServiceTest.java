@@ -0,0 +1,122 @@
+package org.example.khoahoconl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.khoahoconl.entity.Course;
+import org.example.khoahoconl.entity.User;
+import org.example.khoahoconl.enums.Role;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.mapper.CourseMapperImpl;
+import org.example.khoahoconl.mapper.EnrollmentMapperImpl;
+import org.example.khoahoconl.mapper.UserMapperImpl;
+import org.example.khoahoconl.repository.CourseEnrollmentRepository;
+import org.example.khoahoconl.repository.CourseRepository;
+import org.example.khoahoconl.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+// Each enroll must commit on its own for the unique key to arbitrate between threads
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EnrollmentService.class, EntitlementCache.class, CourseMapperImpl.class, EnrollmentMapperImpl.class,
+        UserMapperImpl.class, EnrollmentServiceTest.Metrics.class})
+class EnrollmentServiceTest {
+
+    // Stays below the default pool of 10: each insert holds a connection and the
+    // id generator may need one more to allocate a block
+    static final int THREADS = 8;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    CourseEnrollmentRepository enrollmentRepository;
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void parallelEnrollsForTheSameCourseLeaveOneRow() throws Exception {
+        Long userId = userRepository.save(User.builder().userName("racer").password("x").role(Role.USER).build())
+                .getUserId();
+        Long courseId = courseRepository.save(Course.builder().courseTitle("Contended").price(BigDecimal.ONE).build())
+                .getCourseId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ErrorCode>> outcomes = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        enrollmentService.enrollCourse(userId, courseId);
+                        return null;
+                    } catch (AppException e) {
+                        return e.getErrorCode();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int enrolled = 0;
+            for (Future<ErrorCode> outcome : outcomes) {
+                ErrorCode error = outcome.get(30, TimeUnit.SECONDS);
+                if (error == null) {
+                    enrolled++;
+                } else {
+                    assertThat(error).isEqualTo(ErrorCode.ENROLLMENT_EXISTED);
+                }
+            }
+            assertThat(enrolled).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(enrollmentRepository.findByUser_UserId(userId)).hasSize(1);
+    }
+
+    @Test
+    void enrollingInAMissingCourseReportsCourseNotFound() {
+        Long userId = userRepository.save(User.builder().userName("lost").password("x").role(Role.USER).build())
+                .getUserId();
+
+        assertThatThrownBy(() -> enrollmentService.enrollCourse(userId, Long.MAX_VALUE))
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.COURSE_NOT_FOUND));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.khoahoconl.service;
+
+import org.example.khoahoconl.dto.response.CourseResponse;
+import org.example.khoahoconl.entity.LearningPath;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.repository.LearningPathCourseRepository;
+import org.example.khoahoconl.repository.LearningPathRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LearningPathServiceTest {
+
+    @Mock
+    LearningPathRepository learningPathRepository;
+
+    @Mock
+    LearningPathCourseRepository learningPathCourseRepository;
+
+    @Mock
+    EnrollmentService enrollmentService;
+
+    @Mock
+    PaymentService paymentService;
+
+    @Mock
+    CourseService courseService;
+
+    @Mock
+    EntitlementCache entitlementCache;
+
+    @InjectMocks
+    LearningPathService learningPathService;
+
+    @Test
+    void sharesFollowListPricesAndAddUpToTheTotal() {
+        List<BigDecimal> shares = LearningPathService.allocate(new BigDecimal("450000"),
+                List.of(new BigDecimal("100000"), new BigDecimal("200000"), new BigDecimal("300000")));
+
+        assertThat(shares).containsExactly(new BigDecimal("75000.00"), new BigDecimal("150000.00"),
+                new BigDecimal("225000.00"));
+        assertThat(sum(shares)).isEqualByComparingTo("450000");
+    }
+
+    @Test
+    void roundingRemainderGoesToTheLastShare() {
+        List<BigDecimal> shares = LearningPathService.allocate(new BigDecimal("100.00"),
+                List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE));
+
+        assertThat(shares).containsExactly(new BigDecimal("33.33"), new BigDecimal("33.33"),
+                new BigDecimal("33.34"));
+        assertThat(sum(shares)).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void freeCoursesLeaveTheWholeTotalOnTheLastShare() {
+        List<BigDecimal> shares = LearningPathService.allocate(new BigDecimal("99.99"),
+                List.of(BigDecimal.ZERO, BigDecimal.ZERO));
+
+        assertThat(shares).containsExactly(BigDecimal.ZERO, new BigDecimal("99.99"));
+    }
+
+    @Test
+    void partlyPaidPathChargesTheDiscountedRemainder() {
+        LearningPath path = LearningPath.builder()
+                .pathId(5L)
+                .bundlePrice(new BigDecimal("450000"))
+                .discountPercentage(25)
+                .isActive(true)
+                .build();
+        when(learningPathRepository.findById(5L)).thenReturn(Optional.of(path));
+        when(learningPathCourseRepository.findCourseIdsByPathId(5L)).thenReturn(List.of(1L, 2L, 3L));
+        when(entitlementCache.get(9L)).thenReturn(EntitlementCache.Entitlements.NONE
+                .with(1L, 11L, Status.APPROVED)
+                .with(2L, 12L, Status.PENDING)
+                .with(3L, 13L, Status.PENDING));
+        when(courseService.getCourse(2L)).thenReturn(CourseResponse.builder().price(new BigDecimal("200000")).build());
+        when(courseService.getCourse(3L)).thenReturn(CourseResponse.builder().price(new BigDecimal("300000")).build());
+
+        learningPathService.initiateBundlePayment(9L, 5L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PaymentService.BundleLine>> lines = ArgumentCaptor.forClass(List.class);
+        verify(paymentService).processBundlePayment(lines.capture());
+        assertThat(lines.getValue()).containsExactly(
+                new PaymentService.BundleLine(12L, 2L, new BigDecimal("150000.00")),
+                new PaymentService.BundleLine(13L, 3L, new BigDecimal("225000.00")));
+        assertThat(sum(lines.getValue().stream().map(PaymentService.BundleLine::amount).toList()))
+                .isEqualByComparingTo("375000");
+    }
+
+    private static BigDecimal sum(List<BigDecimal> amounts) {
+        return amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.khoahoconl.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.khoahoconl.entity.PaymentTransaction;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.repository.PaymentTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentQrCodeServiceTest {
+
+    static final String TRANSACTION_ID = "TXN_1234567890";
+
+    @Mock
+    PaymentTransactionRepository paymentTransactionRepository;
+
+    PaymentQrCodeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentQrCodeService(paymentTransactionRepository, new SimpleMeterRegistry(),
+                "test-secret", 8, 1 << 20, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void rendersWithMatchingSignature() {
+        when(paymentTransactionRepository.findByTransactionId(TRANSACTION_ID))
+                .thenReturn(Optional.of(PaymentTransaction.builder()
+                        .transactionId(TRANSACTION_ID)
+                        .courseEnrollmentId(42L)
+                        .courseId(7L)
+                        .amount(new BigDecimal("150000"))
+                        .status(Status.PENDING)
+                        .createdAt(LocalDateTime.now())
+                        .build()));
+
+        byte[] image = service.render(TRANSACTION_ID, service.sign(TRANSACTION_ID), PaymentQrCodeService.Format.PNG);
+
+        assertThat(image).isNotEmpty();
+    }
+
+    @Test
+    void rejectsGuessedOrMalformedSignature() {
+        String otherSignature = service.sign("TXN_1234567891");
+
+        for (String signature : new String[] {otherSignature, "", "not base64!"}) {
+            assertThatThrownBy(() -> service.render(TRANSACTION_ID, signature, PaymentQrCodeService.Format.SVG))
+                    .isInstanceOf(AppException.class)
+                    .extracting(e -> ((AppException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.PAYMENT_NOT_FOUND);
+        }
+        verify(paymentTransactionRepository, never()).findByTransactionId(any());
+    }
+
+    @Test
+    void signatureDependsOnSecret() {
+        PaymentQrCodeService otherNode = new PaymentQrCodeService(paymentTransactionRepository,
+                new SimpleMeterRegistry(), "other-secret", 8, 1 << 20, Duration.ofMinutes(1));
+
+        assertThat(service.sign(TRANSACTION_ID)).isEqualTo(service.sign(TRANSACTION_ID));
+        assertThat(otherNode.sign(TRANSACTION_ID)).isNotEqualTo(service.sign(TRANSACTION_ID));
+    }
+}
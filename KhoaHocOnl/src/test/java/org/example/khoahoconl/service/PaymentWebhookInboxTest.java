@@ -0,0 +1,94 @@
+package org.example.khoahoconl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.khoahoconl.dto.request.WebhookRequest;
+import org.example.khoahoconl.entity.PaymentTransaction;
+import org.example.khoahoconl.entity.PaymentWebhookEvent;
+import org.example.khoahoconl.enums.Status;
+import org.example.khoahoconl.exception.AppException;
+import org.example.khoahoconl.exception.ErrorCode;
+import org.example.khoahoconl.mapper.CourseMapperImpl;
+import org.example.khoahoconl.mapper.EnrollmentMapperImpl;
+import org.example.khoahoconl.mapper.UserMapperImpl;
+import org.example.khoahoconl.repository.PaymentTransactionRepository;
+import org.example.khoahoconl.repository.PaymentWebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({PaymentWebhookInbox.class, EnrollmentService.class, EntitlementCache.class, CourseMapperImpl.class,
+        EnrollmentMapperImpl.class, UserMapperImpl.class, PaymentWebhookInboxTest.Metrics.class})
+class PaymentWebhookInboxTest {
+
+    @Autowired
+    PaymentWebhookInbox inbox;
+
+    @Autowired
+    PaymentTransactionRepository paymentTransactionRepository;
+
+    @Autowired
+    PaymentWebhookEventRepository inboxRepository;
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void unknownTransactionIdIsRejected() {
+        WebhookRequest request = webhook(TransactionIdGenerator.transactionId(123_456_789L), 1L);
+
+        assertThatThrownBy(() -> inbox.accept(request))
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.PAYMENT_NOT_FOUND));
+        assertThat(inboxRepository.count()).isZero();
+    }
+
+    @Test
+    void enrollmentIsTakenFromTheLedgerRow() {
+        String transactionId = TransactionIdGenerator.transactionId(987_654_321L);
+        paymentTransactionRepository.save(PaymentTransaction.builder()
+                .paymentTransactionId(987_654_321L)
+                .transactionId(transactionId)
+                .courseEnrollmentId(42L)
+                .courseId(7L)
+                .amount(BigDecimal.TEN)
+                .status(Status.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        assertThat(inbox.accept(webhook(transactionId, 999L))).isTrue();
+
+        assertThat(inboxRepository.findAll())
+                .singleElement()
+                .extracting(PaymentWebhookEvent::getCourseEnrollmentId)
+                .isEqualTo(42L);
+    }
+
+    private static WebhookRequest webhook(String transactionId, Long courseEnrollmentId) {
+        WebhookRequest request = new WebhookRequest();
+        request.setTransactionId(transactionId);
+        request.setCourseEnrollmentId(courseEnrollmentId);
+        request.setStatus(Status.APPROVED);
+        return request;
+    }
+}
@@ -1,4 +1,4 @@
-import { useState } from "react";
+import { useEffect, useState } from "react";
 import { courseAPI } from "../../../services/api";
 import { Course } from "../../../types";
 
@@ -15,6 +15,36 @@ export const usePayment = (
   const [qrCodeUrl, setQrCodeUrl] = useState<string>("");
   const [enrollmentId, setEnrollmentId] = useState<number | null>(null);
 
+  // While the QR code is shown, wait for the gateway's confirmation instead of polling
+  useEffect(() => {
+    if (!paymentModalOpen || paymentStep !== 2 || !course) {
+      return;
+    }
+    let closed = false;
+    let close: (() => void) | undefined;
+    courseAPI
+      .watchEnrollmentStatus(course.courseId, (status) => {
+        if (status === "APPROVED") {
+          setPaymentStep(3);
+          setEnrollmentSuccess(true);
+          setEnrollmentStatus("APPROVED");
+          setTimeout(() => setPaymentModalOpen(false), 2000);
+        }
+      })
+      .then((stop) => {
+        if (closed) {
+          stop();
+        } else {
+          close = stop;
+        }
+      })
+      .catch((err) => console.error("Could not watch enrollment status:", err));
+    return () => {
+      closed = true;
+      close?.();
+    };
+  }, [paymentModalOpen, paymentStep, course]); // eslint-disable-line react-hooks/exhaustive-deps
+
   const handlePayment = async () => {
     if (!user || !course) {
       return;
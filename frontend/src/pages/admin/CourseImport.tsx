@@ -1,4 +1,4 @@
-import React, { useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import {
   Box,
@@ -8,6 +8,7 @@ import {
   CardContent,
   Alert,
   CircularProgress,
+  LinearProgress,
   Paper,
   List,
   ListItem,
@@ -15,7 +16,9 @@ import {
   Divider,
 } from "@mui/material";
 import { Upload, CheckCircle, Error as ErrorIcon } from "@mui/icons-material";
-import { adminAPI } from "../../services/adminApi";
+import { adminAPI, CourseImportJob } from "../../services/adminApi";
+
+const POLL_INTERVAL_MS = 1000;
 
 const CourseImport: React.FC = () => {
   const navigate = useNavigate();
@@ -26,6 +29,16 @@ const CourseImport: React.FC = () => {
     count?: number;
   } | null>(null);
   const [jsonData, setJsonData] = useState<any[] | null>(null);
+  const [job, setJob] = useState<CourseImportJob | null>(null);
+  // Stops polling and the redirect once the page is left
+  const unmounted = useRef(false);
+
+  useEffect(() => {
+    unmounted.current = false;
+    return () => {
+      unmounted.current = true;
+    };
+  }, []);
 
   const handleFileUpload = (event: React.ChangeEvent<HTMLInputElement>) => {
     const file = event.target.files?.[0];
@@ -51,18 +64,46 @@ const CourseImport: React.FC = () => {
     if (!jsonData) return;
 
     setLoading(true);
+    setResult(null);
     try {
       const response = await adminAPI.importCourses(jsonData);
-      setResult({
-        success: true,
-        message: response.message || "Import successful",
-        count: jsonData.length,
-      });
+      let current = response.result;
+      setJob(current);
+
+      // The import runs in the background; poll until it has finished
+      while (current.status === "QUEUED" || current.status === "RUNNING") {
+        await new Promise((resolve) => setTimeout(resolve, POLL_INTERVAL_MS));
+        if (unmounted.current) return;
+        current = await adminAPI.getImportJob(current.jobId);
+        setJob(current);
+      }
+
+      if (current.status === "FAILED") {
+        setResult({
+          success: false,
+          message: current.failure || "Import failed",
+        });
+      } else if (current.coursesFailed > 0) {
+        setResult({
+          success: false,
+          message: `Imported ${
+            current.coursesProcessed - current.coursesFailed
+          } of ${current.coursesTotal} courses; ${
+            current.coursesFailed
+          } failed`,
+        });
+      } else {
+        setResult({
+          success: true,
+          message: "Import successful",
+          count: current.coursesTotal,
+        });
 
-      // Auto redirect to Course Management after 2 seconds
-      setTimeout(() => {
-        navigate("/admin/courses");
-      }, 2000);
+        // Auto redirect to Course Management after 3 seconds
+        setTimeout(() => {
+          if (!unmounted.current) navigate("/admin/courses");
+        }, 3000);
+      }
     } catch (error: any) {
       setResult({
         success: false,
@@ -183,6 +224,7 @@ const CourseImport: React.FC = () => {
                 onClick={() => {
                   setJsonData(null);
                   setResult(null);
+                  setJob(null);
                 }}
                 disabled={loading}
               >
@@ -193,6 +235,23 @@ const CourseImport: React.FC = () => {
         </Card>
       )}
 
+      {job && (job.status === "QUEUED" || job.status === "RUNNING") && (
+        <Card sx={{ mb: 3 }}>
+          <CardContent>
+            <Typography variant="body1" gutterBottom>
+              {job.status === "QUEUED"
+                ? "Import queued..."
+                : `Importing ${job.coursesProcessed} of ${job.coursesTotal} courses`}
+              {job.etaSeconds != null && ` (about ${job.etaSeconds}s left)`}
+            </Typography>
+            <LinearProgress
+              variant="determinate"
+              value={job.percentComplete}
+            />
+          </CardContent>
+        </Card>
+      )}
+
       {result && (
         <Alert
           severity={result.success ? "success" : "error"}
@@ -201,6 +260,33 @@ const CourseImport: React.FC = () => {
           <Typography variant="body1" fontWeight="bold">
             {result.message}
           </Typography>
+          {job?.result && (
+            <Typography variant="body2">
+              Created {job.result.coursesCreated}, updated{" "}
+              {job.result.coursesUpdated}, unchanged{" "}
+              {job.result.coursesUnchanged}.
+              {job.result.missingPrerequisites > 0 &&
+                ` ${job.result.missingPrerequisites} prerequisite(s) not found.`}
+              {job.result.cyclicPrerequisites > 0 &&
+                ` ${job.result.cyclicPrerequisites} cyclic prerequisite(s) skipped.`}
+            </Typography>
+          )}
+          {job?.errors && job.errors.length > 0 && (
+            <List dense>
+              {job.errors.map((courseError, index) => (
+                <ListItem key={index} disableGutters>
+                  <ListItemText
+                    primary={
+                      courseError.courseId != null
+                        ? `Course ${courseError.courseId}`
+                        : `Item ${courseError.position}`
+                    }
+                    secondary={courseError.message}
+                  />
+                </ListItem>
+              ))}
+            </List>
+          )}
           {result.count && (
             <Typography variant="body2">
               Successfully imported {result.count} courses. Redirecting to
@@ -24,7 +24,6 @@ import {
   DialogTitle,
   DialogContent,
   DialogActions,
-  Grid,
 } from "@mui/material";
 import {
   CheckCircle,
@@ -35,6 +34,8 @@ import {
 } from "@mui/icons-material";
 import { adminAPI, EnrollmentDetail } from "../../services/adminApi";
 
+const PAGE_SIZE = 50;
+
 const EnrollmentManagement: React.FC = () => {
   const [enrollments, setEnrollments] = useState<EnrollmentDetail[]>([]);
   const [filteredEnrollments, setFilteredEnrollments] = useState<
@@ -44,6 +45,11 @@ const EnrollmentManagement: React.FC = () => {
   const [error, setError] = useState<string>("");
   const [searchTerm, setSearchTerm] = useState("");
   const [statusFilter, setStatusFilter] = useState<string>("ALL");
+  // Cursor of every page visited so far; the last one is the current page
+  const [cursors, setCursors] = useState<(string | undefined)[]>([
+    undefined,
+  ]);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
   const [confirmDialog, setConfirmDialog] = useState<{
     open: boolean;
     enrollmentId: number | null;
@@ -69,17 +75,22 @@ const EnrollmentManagement: React.FC = () => {
 
   useEffect(() => {
     fetchEnrollments();
-  }, []);
+  }, [statusFilter, cursors]); // eslint-disable-line react-hooks/exhaustive-deps
 
   useEffect(() => {
     filterEnrollments();
-  }, [enrollments, searchTerm, statusFilter]); // eslint-disable-line react-hooks/exhaustive-deps
+  }, [enrollments, searchTerm]); // eslint-disable-line react-hooks/exhaustive-deps
 
   const fetchEnrollments = async () => {
     try {
       setLoading(true);
-      const enrollmentsData = await adminAPI.getEnrollments();
-      setEnrollments(enrollmentsData);
+      const page = await adminAPI.getEnrollments({
+        status: statusFilter === "ALL" ? undefined : statusFilter,
+        cursor: cursors[cursors.length - 1],
+        size: PAGE_SIZE,
+      });
+      setEnrollments(page.items);
+      setNextCursor(page.hasNext ? page.nextCursor : undefined);
       setLoading(false);
     } catch (err: any) {
       console.error("Error fetching enrollments:", err);
@@ -88,6 +99,22 @@ const EnrollmentManagement: React.FC = () => {
     }
   };
 
+  const handleStatusFilterChange = (status: string) => {
+    setStatusFilter(status);
+    setCursors([undefined]);
+  };
+
+  const goToNextPage = () => {
+    if (nextCursor) {
+      setCursors((prev) => [...prev, nextCursor]);
+    }
+  };
+
+  const goToPreviousPage = () => {
+    setCursors((prev) => (prev.length > 1 ? prev.slice(0, -1) : prev));
+  };
+
+  // Status is filtered by the server; the search only narrows the current page
   const filterEnrollments = () => {
     let filtered = enrollments;
 
@@ -107,13 +134,6 @@ const EnrollmentManagement: React.FC = () => {
       );
     }
 
-    // Filter by status
-    if (statusFilter !== "ALL") {
-      filtered = filtered.filter(
-        (enrollment) => enrollment.status === statusFilter
-      );
-    }
-
     setFilteredEnrollments(filtered);
   };
 
@@ -218,16 +238,6 @@ const EnrollmentManagement: React.FC = () => {
     });
   };
 
-  const getStatusCounts = () => {
-    const counts = {
-      ALL: enrollments.length,
-      PENDING: enrollments.filter((e) => e.status === "PENDING").length,
-      APPROVED: enrollments.filter((e) => e.status === "APPROVED").length,
-      REJECTED: enrollments.filter((e) => e.status === "REJECTED").length,
-    };
-    return counts;
-  };
-
   if (loading) {
     return (
       <Box sx={{ display: "flex", justifyContent: "center", mt: 4 }}>
@@ -244,58 +254,12 @@ const EnrollmentManagement: React.FC = () => {
     );
   }
 
-  const statusCounts = getStatusCounts();
-
   return (
     <Box>
       <Typography variant="h4" component="h1" gutterBottom fontWeight="bold">
         Enrollment Management
       </Typography>
 
-      {/* Stats Cards */}
-      <Grid container spacing={2} sx={{ mb: 3 }}>
-        <Grid item xs={12} sm={6} md={3}>
-          <Card sx={{ p: 2, textAlign: "center" }}>
-            <Typography variant="h4" color="primary" fontWeight="bold">
-              {statusCounts.ALL}
-            </Typography>
-            <Typography variant="body2" color="text.secondary">
-              Total Enrollments
-            </Typography>
-          </Card>
-        </Grid>
-        <Grid item xs={12} sm={6} md={3}>
-          <Card sx={{ p: 2, textAlign: "center" }}>
-            <Typography variant="h4" color="warning.main" fontWeight="bold">
-              {statusCounts.PENDING}
-            </Typography>
-            <Typography variant="body2" color="text.secondary">
-              Pending
-            </Typography>
-          </Card>
-        </Grid>
-        <Grid item xs={12} sm={6} md={3}>
-          <Card sx={{ p: 2, textAlign: "center" }}>
-            <Typography variant="h4" color="success.main" fontWeight="bold">
-              {statusCounts.APPROVED}
-            </Typography>
-            <Typography variant="body2" color="text.secondary">
-              Approved
-            </Typography>
-          </Card>
-        </Grid>
-        <Grid item xs={12} sm={6} md={3}>
-          <Card sx={{ p: 2, textAlign: "center" }}>
-            <Typography variant="h4" color="error.main" fontWeight="bold">
-              {statusCounts.REJECTED}
-            </Typography>
-            <Typography variant="body2" color="text.secondary">
-              Rejected
-            </Typography>
-          </Card>
-        </Grid>
-      </Grid>
-
       {/* Filters */}
       <Card sx={{ p: 2, mb: 3 }}>
         <Box
@@ -307,7 +271,7 @@ const EnrollmentManagement: React.FC = () => {
           }}
         >
           <TextField
-            placeholder="Search by user or course..."
+            placeholder="Search this page by user or course..."
             value={searchTerm}
             onChange={(e) => setSearchTerm(e.target.value)}
             size="small"
@@ -323,7 +287,7 @@ const EnrollmentManagement: React.FC = () => {
             <InputLabel>Status Filter</InputLabel>
             <Select
               value={statusFilter}
-              onChange={(e) => setStatusFilter(e.target.value)}
+              onChange={(e) => handleStatusFilterChange(e.target.value)}
               label="Status Filter"
               startAdornment={
                 <FilterList sx={{ mr: 1, color: "text.secondary" }} />
@@ -338,7 +302,7 @@ const EnrollmentManagement: React.FC = () => {
 
           <Typography variant="body2" color="text.secondary">
             Showing {filteredEnrollments.length} of {enrollments.length}{" "}
-            enrollments
+            enrollments on page {cursors.length}
           </Typography>
         </Box>
       </Card>
@@ -456,6 +420,26 @@ const EnrollmentManagement: React.FC = () => {
             </TableBody>
           </Table>
         </TableContainer>
+        <Box
+          sx={{ display: "flex", justifyContent: "flex-end", gap: 1, p: 2 }}
+        >
+          <Button
+            variant="outlined"
+            size="small"
+            disabled={cursors.length === 1}
+            onClick={goToPreviousPage}
+          >
+            Previous
+          </Button>
+          <Button
+            variant="outlined"
+            size="small"
+            disabled={!nextCursor}
+            onClick={goToNextPage}
+          >
+            Next
+          </Button>
+        </Box>
       </Card>
 
       {/* Confirmation Dialog */}
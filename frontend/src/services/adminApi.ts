@@ -22,6 +22,45 @@ export interface EnrollmentDetail {
   transactionId?: string;
 }
 
+export interface EnrollmentQuery {
+  status?: string;
+  cursor?: string;
+  size?: number;
+}
+
+export interface EnrollmentPage {
+  items: EnrollmentDetail[];
+  hasNext: boolean;
+  // Pass back as the cursor to load the following page
+  nextCursor?: string;
+}
+
+export interface CourseImportError {
+  position?: number;
+  courseId?: number;
+  message: string;
+}
+
+export interface CourseImportJob {
+  jobId: string;
+  status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+  coursesTotal: number;
+  coursesProcessed: number;
+  coursesFailed: number;
+  percentComplete: number;
+  etaSeconds?: number;
+  failure?: string;
+  // The first failed courses; coursesFailed has the full count
+  errors?: CourseImportError[];
+  result?: {
+    coursesCreated: number;
+    coursesUpdated: number;
+    coursesUnchanged: number;
+    missingPrerequisites: number;
+    cyclicPrerequisites: number;
+  };
+}
+
 export interface UserDetail {
   userId: number;
   userName: string;
@@ -95,31 +134,26 @@ export const adminAPI = {
       .delete(`/admin/courses/${courseId}`)
       .then((res: AxiosResponse<ApiResponse<string>>) => res.data),
 
-  // Get all enrollments
-  getEnrollments: async (): Promise<EnrollmentDetail[]> => {
-    try {
-      const response = await adminApi.get("/admin/enrollments");
-      const enrollments = response.data;
-
-      // Transform backend data to frontend format
-      return enrollments.map((enrollment: any) => ({
-        enrollmentId: enrollment.courseEnrollmentId || enrollment.id,
-        userName: enrollment.user?.userName || "N/A",
-        userFullName:
-          enrollment.user?.fullName || enrollment.user?.userName || "N/A",
-        courseTitle: enrollment.course?.courseTitle || "N/A",
-        status: enrollment.status || "PENDING",
-        enrollmentDate:
-          enrollment.requestDate ||
-          enrollment.createdDate ||
-          new Date().toISOString(),
-        coursePrice: enrollment.course?.price || 0,
-        transactionId: `TXN-${enrollment.courseEnrollmentId || enrollment.id}`,
-      }));
-    } catch (error) {
-      throw error;
-    }
-  },
+  // Get one page of enrollments, newest first; the server filters by status
+  getEnrollments: (query: EnrollmentQuery = {}): Promise<EnrollmentPage> =>
+    adminApi
+      .get("/admin/enrollments", { params: query })
+      .then((res: AxiosResponse) => ({
+        // Transform backend data to frontend format
+        items: res.data.items.map((enrollment: any) => ({
+          enrollmentId: enrollment.courseEnrollmentId,
+          userName: enrollment.userName || "N/A",
+          userFullName:
+            enrollment.userFullName || enrollment.userName || "N/A",
+          courseTitle: enrollment.courseTitle || "N/A",
+          status: enrollment.status || "PENDING",
+          enrollmentDate: enrollment.requestDate || new Date().toISOString(),
+          coursePrice: enrollment.coursePrice || 0,
+          transactionId: `TXN-${enrollment.courseEnrollmentId}`,
+        })),
+        hasNext: res.data.hasNext,
+        nextCursor: res.data.nextCursor || undefined,
+      })),
 
   // Approve enrollment
   approveEnrollment: (enrollmentId: number): Promise<void> =>
@@ -129,11 +163,19 @@ export const adminAPI = {
   rejectEnrollment: (enrollmentId: number): Promise<void> =>
     adminApi.put(`/admin/enrollments/${enrollmentId}/reject`).then(() => {}),
 
-  // Import courses from JSON
-  importCourses: (coursesData: any[]): Promise<ApiResponse<string>> =>
+  // Queue an import of courses from JSON; poll the returned job for progress
+  importCourses: (
+    coursesData: any[]
+  ): Promise<ApiResponse<CourseImportJob>> =>
     adminApi
       .post("/admin/courses/import", coursesData)
-      .then((res: AxiosResponse<ApiResponse<string>>) => res.data),
+      .then((res: AxiosResponse<ApiResponse<CourseImportJob>>) => res.data),
+
+  // Get the progress or final result of an import job
+  getImportJob: (jobId: string): Promise<CourseImportJob> =>
+    adminApi
+      .get(`/admin/courses/import/${jobId}`)
+      .then((res: AxiosResponse<ApiResponse<CourseImportJob>>) => res.data.result),
 };
 
 export default adminApi;
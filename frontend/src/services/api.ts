@@ -15,6 +15,8 @@ import { createApiInstance } from "./baseApi";
 
 const api = createApiInstance();
 
+const STREAM_RECONNECT_DELAY_MS = 3000;
+
 export const authAPI = {
   login: (data: LoginRequest): Promise<AuthResponse> =>
     api
@@ -166,6 +168,54 @@ export const courseAPI = {
     api
       .get(`/course/enrollment-status/${courseId}`)
       .then((res: AxiosResponse<ApiResponse<string>>) => res.data),
+
+  // EventSource cannot send the Authorization header, so the stream is opened
+  // with a short-lived token scoped to this course. Returns a function that closes it.
+  watchEnrollmentStatus: async (
+    courseId: number,
+    onStatus: (status: string) => void
+  ): Promise<() => void> => {
+    let source: EventSource | null = null;
+    let retryTimer: ReturnType<typeof setTimeout> | undefined;
+    let closed = false;
+
+    // The browser's own reconnect would reuse the expired token in the URL, so
+    // every connection is opened here with a fresh one. The server sends the
+    // current status on connect, so nothing is missed in between.
+    const reconnect = () => {
+      if (!closed) {
+        retryTimer = setTimeout(
+          () => open().catch(reconnect),
+          STREAM_RECONNECT_DELAY_MS
+        );
+      }
+    };
+    const open = async () => {
+      const tokenResponse = await api.post<ApiResponse<string>>(
+        `/course/enrollment-status/${courseId}/stream-token`
+      );
+      if (closed) return;
+      source = new EventSource(
+        `${api.defaults.baseURL}/course/enrollment-status/${courseId}/stream` +
+          `?access_token=${encodeURIComponent(tokenResponse.data.result)}`
+      );
+      source.addEventListener("enrollment-status", (event) =>
+        onStatus((event as MessageEvent<string>).data)
+      );
+      source.onerror = () => {
+        source?.close();
+        source = null;
+        reconnect();
+      };
+    };
+
+    await open();
+    return () => {
+      closed = true;
+      clearTimeout(retryTimer);
+      source?.close();
+    };
+  },
 };
 
 export const userAPI = {
@@ -188,4 +238,18 @@ export const userAPI = {
       .then((res: AxiosResponse<ApiResponse<any[]>>) => res.data.result),
 };
 
+export const learningPathAPI = {
+  // Creates PENDING enrollments for the path's courses the user is not enrolled in
+  enroll: (pathId: number): Promise<ApiResponse<any>> =>
+    api
+      .post(`/learning-paths/${pathId}/enroll`)
+      .then((res: AxiosResponse<ApiResponse<any>>) => res.data),
+
+  // One payment for every unpaid course of the path, priced by the server
+  pay: (pathId: number): Promise<ApiResponse<PaymentResponse>> =>
+    api
+      .post(`/learning-paths/${pathId}/payment`)
+      .then((res: AxiosResponse<ApiResponse<PaymentResponse>>) => res.data),
+};
+
 export default api;
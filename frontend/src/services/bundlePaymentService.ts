@@ -1,4 +1,4 @@
-import { courseAPI } from "./api";
+import api, { learningPathAPI, userAPI } from "./api";
 
 export interface BundlePaymentRequest {
   pathId: number;
@@ -15,28 +15,24 @@ export interface BundlePaymentResponse {
 }
 
 class BundlePaymentService {
-  // Simulate bundle payment process
+  // Enroll in the path and start one payment for all of its unpaid courses;
+  // the amount is computed by the server from the path's bundle price
   async processBundlePayment(
     request: BundlePaymentRequest
   ): Promise<BundlePaymentResponse> {
-    // Simulate API delay
-    await new Promise((resolve) => setTimeout(resolve, 1000));
-
-    // Generate mock payment response
-    const bundleEnrollmentId = `BUNDLE-${request.pathId}-${Date.now()}`;
-    const paymentQRCodeUrl = `https://placehold.co/400x400/E9E9E9/000000?text=Bundle+Payment+QR\nID: ${bundleEnrollmentId}`;
+    await learningPathAPI.enroll(request.pathId);
+    const payment = await learningPathAPI.pay(request.pathId);
 
     return {
-      bundleEnrollmentId,
-      paymentQRCodeUrl,
-      message: `Vui lòng quét mã QR để thanh toán combo ${
-        request.courseIds.length
-      } khóa học. Tổng tiền: ${request.bundlePrice.toLocaleString("vi-VN")}đ`,
+      bundleEnrollmentId: payment.result.transactionId || "",
+      paymentQRCodeUrl: payment.result.paymentQRCodeUrl,
+      message: payment.result.message,
       courseIds: request.courseIds,
     };
   }
 
-  // Simulate successful bundle payment and enroll in all courses
+  // Demo only: deliver the gateway webhook for the bundle transaction, which
+  // approves every enrollment of the bundle, then wait until they show up
   async simulateBundlePaymentSuccess(
     bundleEnrollmentId: string,
     courseIds: number[]
@@ -46,54 +42,25 @@ class BundlePaymentService {
     failedCourses: number[];
     message: string;
   }> {
-    console.log(
-      `🎯 Processing bundle payment success for: ${bundleEnrollmentId}`
-    );
-    console.log(`📚 Enrolling in courses: ${courseIds.join(", ")}`);
-
-    const enrolledCourses: number[] = [];
-    const failedCourses: number[] = [];
-
-    // Enroll in each course individually
-    for (const courseId of courseIds) {
-      try {
-        console.log(`📝 Enrolling in course ${courseId}...`);
-
-        // First enroll in the course
-        const enrollResponse = await courseAPI.enrollCourse(courseId);
-        console.log(`✅ Enrolled in course ${courseId}:`, enrollResponse);
-
-        // Extract enrollment ID from the response
-        const enrollmentIdMatch =
-          enrollResponse.result.match(/Enrollment ID: (\d+)/);
-        if (enrollmentIdMatch) {
-          const enrollmentId = parseInt(enrollmentIdMatch[1]);
-
-          // Simulate payment success for this enrollment
-          console.log(
-            `💳 Simulating payment for enrollment ${enrollmentId}...`
-          );
-          const paymentResponse = await courseAPI.simulatePayment(enrollmentId);
-          console.log(
-            `✅ Payment simulated for course ${courseId}:`,
-            paymentResponse
-          );
-
-          enrolledCourses.push(courseId);
-        } else {
-          console.error(
-            `❌ Could not extract enrollment ID for course ${courseId}`
-          );
-          failedCourses.push(courseId);
-        }
-      } catch (error) {
-        console.error(`❌ Failed to enroll in course ${courseId}:`, error);
-        failedCourses.push(courseId);
-      }
-
-      // Add small delay between enrollments
+    await api.post("/webhook/payment", {
+      transactionId: bundleEnrollmentId,
+      status: "APPROVED",
+    });
+
+    // The webhook is applied in the background, usually within a second
+    let enrolledCourses: number[] = [];
+    for (let attempt = 0; attempt < 10; attempt++) {
       await new Promise((resolve) => setTimeout(resolve, 500));
+      const enrollments = await userAPI.getAllEnrollments();
+      enrolledCourses = this.checkBundleAccess(
+        courseIds,
+        enrollments
+      ).enrolledCourses;
+      if (enrolledCourses.length === courseIds.length) break;
     }
+    const failedCourses = courseIds.filter(
+      (courseId) => !enrolledCourses.includes(courseId)
+    );
 
     const success = enrolledCourses.length > 0;
     const message = success
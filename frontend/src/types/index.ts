@@ -73,6 +73,8 @@ export interface ApiResponse<T> {
 export interface PaymentResponse {
   paymentQRCodeUrl: string;
   message: string;
+  transactionId?: string;
+  amount?: number;
 }
 
 export interface CourseUpdateRequest {